@@ -0,0 +1,47 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        return run(WebApplicationType.NONE, extraArgs);
+    }
+
+    static ConfigurableApplicationContext startWeb(String... extraArgs) {
+        return run(WebApplicationType.SERVLET, extraArgs);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType webType, String... extraArgs) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--shareit.search.engine=memory",
+                "--shareit.rate-limit.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "--logging.level.org.zalando.logbook=WARN"));
+        args.addAll(Arrays.asList(extraArgs));
+
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .web(webType)
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One owner with bookings / 10 items (at least 10) and one booker holding every booking.
+ * Each item gets back-to-back daily bookings, half of them in the past and half in the future.
+ */
+final class BenchmarkData {
+
+    final long ownerId;
+    final long bookerId;
+    final long itemId;
+
+    private BenchmarkData(long ownerId, long bookerId, long itemId) {
+        this.ownerId = ownerId;
+        this.bookerId = bookerId;
+        this.itemId = itemId;
+    }
+
+    static BenchmarkData seed(ConfigurableApplicationContext context, int bookings) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+
+        User owner = userRepository.save(user("owner"));
+        User booker = userRepository.save(user("booker"));
+
+        int itemCount = Math.max(10, bookings / 10);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(Item.builder()
+                    .name("Дрель " + i)
+                    .description("Аккумуляторная дрель номер " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        items = itemRepository.saveAll(items);
+
+        int perItem = Math.max(1, bookings / itemCount);
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).minusDays(perItem / 2);
+        List<Booking> bookingList = new ArrayList<>();
+        for (int i = 0; i < bookings; i++) {
+            LocalDateTime start = base.plusDays(i / itemCount);
+            bookingList.add(Booking.builder()
+                    .start(start)
+                    .end(start.plusHours(23))
+                    .item(items.get(i % itemCount))
+                    .booker(booker)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+        bookingRepository.saveAll(bookingList);
+
+        // Bookings saved around BookingService have no summary rows yet; build them as the writes would have.
+        ItemBookingSummaryService summaryService = context.getBean(ItemBookingSummaryService.class);
+        List<Item> bookedItems = items;
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(status ->
+                bookedItems.forEach(item -> summaryService.refresh(item.getId())));
+
+        return new BenchmarkData(owner.getId(), booker.getId(), items.get(0).getId());
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@bench.test");
+        return user;
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<Item> items;
+    private List<Booking> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("owner");
+        owner.setEmail("owner@bench.test");
+
+        items = new ArrayList<>();
+        bookings = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            Item item = Item.builder()
+                    .id(i)
+                    .name("Дрель " + i)
+                    .description("Аккумуляторная дрель номер " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build();
+            items.add(item);
+            bookings.add(Booking.builder()
+                    .id(i)
+                    .start(now.plusDays(i))
+                    .end(now.plusDays(i + 1))
+                    .item(item)
+                    .booker(owner)
+                    .status(BookingStatus.APPROVED)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> bookingToDtoResponse() {
+        return bookings.stream()
+                .map(BookingMapper::toDtoResponse)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ItemDto> itemToDto() {
+        return items.stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ItemDtoResponse> itemToDtoWithBookingDates() {
+        return items.stream()
+                .map(ItemMapper::toDtoWithBookingDates)
+                .toList();
+    }
+}
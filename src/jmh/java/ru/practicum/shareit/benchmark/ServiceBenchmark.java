@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.exceptions.NotFoundDataException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.ItemField;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private BenchmarkData data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        data = BenchmarkData.seed(context, bookings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoResponse> getUserItems() throws NotFoundDataException {
+        return itemService.getUserItems(data.ownerId, ItemField.LIST_DEFAULTS);
+    }
+
+    @Benchmark
+    public ItemDtoResponse getItemById() throws NotFoundDataException {
+        return itemService.getItemById(data.itemId, ItemField.DETAIL_DEFAULTS);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> getOwnerBookings() throws NotFoundDataException {
+        return bookingService.getByOwner(data.ownerId, "ALL", 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> getOwnerPastBookings() throws NotFoundDataException {
+        return bookingService.getByOwner(data.ownerId, "PAST", 0, 20);
+    }
+
+    @Benchmark
+    public List<BookingDtoResponse> getBookerFutureBookings() {
+        return bookingService.getByBooker(data.bookerId, "FUTURE", 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> search() throws ValidationException {
+        return itemService.search("дрель", null, null, 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchFree() throws ValidationException {
+        LocalDateTime start = LocalDateTime.now().plusDays(7);
+        return itemService.search("дрель", start, start.plusDays(2), 0, 20);
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item detail requests over HTTP with platform and virtual request threads.
+ * Throughput and sample-time modes are both reported, the latter includes p0.99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest itemRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.startWeb(
+                "--server.port=0",
+                "--server.tomcat.threads.max=16",
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--shareit.fan-out.max-concurrency=5",
+                "--spring.threads.virtual.enabled=" + virtualThreads);
+        BenchmarkData data = BenchmarkData.seed(context, 1000);
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newHttpClient();
+        itemRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + data.itemId))
+                .header("X-Sharer-User-Id", String.valueOf(data.bookerId))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getItemById() throws IOException, InterruptedException {
+        int status = client.send(itemRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("Item request answered " + status);
+        }
+        return status;
+    }
+}
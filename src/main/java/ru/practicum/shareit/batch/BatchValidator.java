@@ -0,0 +1,46 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class BatchValidator {
+
+    private final Validator validator;
+    private final int maxSize;
+
+    public BatchValidator(Validator validator, @Value("${shareit.batch.max-size:10000}") int maxSize) {
+        this.validator = validator;
+        this.maxSize = maxSize;
+    }
+
+    public void checkSize(List<?> rows) throws ValidationException {
+        if (rows == null || rows.isEmpty()) {
+            throw new ValidationException("Batch is empty");
+        }
+        if (rows.size() > maxSize) {
+            throw new ValidationException("Batch size exceeds " + maxSize + " rows");
+        }
+    }
+
+    public String validate(Object row) {
+        if (row == null) {
+            return "Row is empty";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
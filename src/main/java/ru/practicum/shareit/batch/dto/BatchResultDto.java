@@ -0,0 +1,20 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class BatchResultDto {
+    private final List<BatchRowDto> created = new ArrayList<>();
+    private final List<BatchRowDto> errors = new ArrayList<>();
+
+    public void addCreated(int index, long id) {
+        created.add(new BatchRowDto(index, id, null));
+    }
+
+    public void addError(int index, String error) {
+        errors.add(new BatchRowDto(index, null, error));
+    }
+}
@@ -1,13 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.conditional.ResourceVersion;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.exceptions.ValidationException;
 
 import java.util.List;
 
@@ -15,8 +23,10 @@ import java.util.List;
  * TODO Sprint add-bookings.
  */
 @RestController
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
 @RequestMapping(path = "/bookings")
 @AllArgsConstructor
+@Validated
 public class BookingController {
 
     private final BookingService bookingService;
@@ -28,6 +38,14 @@ public class BookingController {
         return bookingService.add(bookingDto, idUser);
     }
 
+    @PostMapping(value = "/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BatchResultDto addBookings(@RequestBody List<BookingDto> bookings,
+                                      @RequestHeader("X-Sharer-User-Id") long idUser) throws NotFoundDataException,
+            ValidationException {
+        return bookingService.addBookings(bookings, idUser);
+    }
+
     @PatchMapping(value = "/{idBooking}")
     @ResponseStatus(HttpStatus.OK)
     public BookingDtoResponse approve(@RequestHeader("X-Sharer-User-Id") long idUser,
@@ -36,23 +54,37 @@ public class BookingController {
         return bookingService.approve(idBooking, idUser, approved);
     }
 
-    @GetMapping(value = "/{idBooking}")
+    @PatchMapping(value = "/{idBooking}/cancel")
     @ResponseStatus(HttpStatus.OK)
-    public BookingDtoResponse get(@PathVariable long idBooking) throws NotFoundDataException {
+    public BookingDtoResponse cancel(@RequestHeader("X-Sharer-User-Id") long idUser,
+                                     @PathVariable long idBooking) throws NotOwnerException, NotFoundDataException {
+        return bookingService.cancel(idBooking, idUser);
+    }
+
+    @GetMapping(value = "/{idBooking}")
+    public BookingDtoResponse get(@PathVariable long idBooking, WebRequest request) throws NotFoundDataException {
+        ResourceVersion version = bookingService.getVersion(idBooking);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
         return bookingService.get(idBooking);
     }
 
     @GetMapping(value = "/owner")
     public List<BookingDtoResponse> getByOwner(@RequestHeader("X-Sharer-User-Id") long idUser,
-                                               @RequestParam(required = false, defaultValue = "ALL") String state) throws NotFoundDataException {
-        return bookingService.getByOwner(idUser, state);
+                                               @RequestParam(required = false, defaultValue = "ALL") String state,
+                                               @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                               @RequestParam(defaultValue = "10") @Positive int size) throws NotFoundDataException {
+        return bookingService.getByOwner(idUser, state, from, size);
     }
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public List<BookingDtoResponse> getByBooker(@RequestHeader("X-Sharer-User-Id") long idUser,
-                                                @RequestParam(required = false, defaultValue = "ALL") String state) {
-        return bookingService.getByBooker(idUser, state);
+                                                @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                @RequestParam(defaultValue = "10") @Positive int size) {
+        return bookingService.getByBooker(idUser, state, from, size);
     }
 
     @DeleteMapping(value = "/{id}")
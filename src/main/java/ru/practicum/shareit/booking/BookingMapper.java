@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 
 public class BookingMapper {
@@ -34,9 +37,21 @@ public class BookingMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(new ItemShortDto(booking.getItem().getId(), booking.getItem().getName()))
+                .booker(new UserShortDto(booking.getBooker().getId(), booking.getBooker().getName()))
                 .status(booking.getStatus())
                 .build();
     }
+
+    public static BookingDtoResponse toDtoResponse(BookingRow row) {
+
+        return BookingDtoResponse.builder()
+                .id(row.getId())
+                .start(row.getStart())
+                .end(row.getEnd())
+                .item(new ItemShortDto(row.getItemId(), row.getItemName()))
+                .booker(new UserShortDto(row.getBookerId(), row.getBookerName()))
+                .status(BookingStatus.valueOf(row.getStatus()))
+                .build();
+    }
 }
@@ -1,28 +1,112 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.item.dto.ItemBookingStats;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query(value = "select items.owner_id from bookings b left join items on items.id = b.item_id " +
-            "where b.id = :idBooking", nativeQuery = true)
-    long getOwnerIdByBookingId(long idBooking);
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
 
     @Transactional
-    @Modifying(clearAutomatically = true)
-    @Query(value = "update bookings set status = :bookingStatus where id = :idBooking", nativeQuery = true)
-    void setNewStatus(long idBooking, String bookingStatus);
+    @Query(value = "WITH upd AS (UPDATE bookings b SET status = :bookingStatus, version = b.version + 1, " +
+            "updated_at = LOCALTIMESTAMP FROM items i " +
+            "WHERE b.id = :idBooking AND i.id = b.item_id AND i.owner_id = :idOwner AND b.status IN (:fromStatuses) " +
+            "RETURNING b.id, b.start_date, b.end_date, b.status, b.item_id, i.name AS item_name, b.booker_id) " +
+            "SELECT upd.id AS \"id\", upd.start_date AS \"start\", upd.end_date AS \"end\", " +
+            "upd.status AS \"status\", upd.item_id AS \"itemId\", upd.item_name AS \"itemName\", " +
+            "u.id AS \"bookerId\", u.name AS \"bookerName\" " +
+            "FROM upd JOIN users u ON u.id = upd.booker_id", nativeQuery = true)
+    Optional<BookingRow> changeStatusByOwner(long idBooking, long idOwner, Collection<String> fromStatuses,
+                                             String bookingStatus);
 
-    List<Booking> findByBooker_Id(long id);
-
-    @Query(value = "select b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status " +
-            "from bookings b left join items on b.item_id = items.id where items.owner_id = :idOwner", nativeQuery = true)
-    List<Booking> getBookingsByOwnerId(long idOwner);
+    @Query("select greatest(b.updatedAt, b.item.updatedAt, b.booker.updatedAt) from Booking b where b.id = :idBooking")
+    Optional<LocalDateTime> findVersionById(long idBooking);
 
     List<Booking> findByItem_id(long id);
+
+    boolean existsByBooker_IdAndItem_IdAndStatusAndEndBefore(long idBooker, long idItem, BookingStatus status,
+                                                            LocalDateTime end);
+
+    List<Booking> findByItem_IdInAndStatusInAndStartBeforeAndEndAfter(Collection<Long> itemIds,
+                                                                      Collection<BookingStatus> statuses,
+                                                                      LocalDateTime end, LocalDateTime start);
+
+    @Query("select distinct b.item.id from Booking b where b.item.id in :itemIds and b.status in :statuses " +
+            "and b.start < :end and b.end > :start")
+    List<Long> findBusyItemIds(Collection<Long> itemIds, Collection<BookingStatus> statuses, LocalDateTime start,
+                               LocalDateTime end);
+
+    boolean existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(long idItem, Collection<BookingStatus> statuses,
+                                                                 LocalDateTime end, LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDates(b.item.id, " +
+            "max(case when b.end < :now then b.end end), min(case when b.start > :now then b.start end)) " +
+            "from Booking b where b.item.owner.id = :idOwner " +
+            "and b.status not in (ru.practicum.shareit.booking.BookingStatus.REJECTED, " +
+            "ru.practicum.shareit.booking.BookingStatus.CANCELED) " +
+            "group by b.item.id")
+    List<ItemBookingDates> findBookingDatesByOwnerId(long idOwner, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingStats(" +
+            "max(case when b.end < :now then b.end end), min(case when b.start > :now then b.start end), " +
+            "min(case when b.end >= :now then b.end end), " +
+            "count(case when b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED then 1 end), " +
+            "count(case when b.status = ru.practicum.shareit.booking.BookingStatus.WAITING then 1 end)) " +
+            "from Booking b where b.item.id = :idItem " +
+            "and b.status in (ru.practicum.shareit.booking.BookingStatus.WAITING, " +
+            "ru.practicum.shareit.booking.BookingStatus.APPROVED)")
+    ItemBookingStats findStatsByItemId(long idItem, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDates(b.item.id, " +
+            "max(case when b.end < :now then b.end end), min(case when b.start > :now then b.start end)) " +
+            "from Booking b where b.item.id = :idItem " +
+            "and b.status not in (ru.practicum.shareit.booking.BookingStatus.REJECTED, " +
+            "ru.practicum.shareit.booking.BookingStatus.CANCELED) " +
+            "group by b.item.id")
+    Optional<ItemBookingDates> findBookingDatesByItemId(long idItem, LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBooker_IdOrderByStartDescIdDesc(long idBooker, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBooker_IdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(long idBooker, LocalDateTime start,
+                                                                                LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBooker_IdAndEndBeforeOrderByStartDescIdDesc(long idBooker, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBooker_IdAndStartAfterOrderByStartDescIdDesc(long idBooker, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByBooker_IdAndStatusOrderByStartDescIdDesc(long idBooker, BookingStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_Owner_IdOrderByStartDescIdDesc(long idOwner, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_Owner_IdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(long idOwner, LocalDateTime start,
+                                                                                    LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_Owner_IdAndEndBeforeOrderByStartDescIdDesc(long idOwner, LocalDateTime end, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_Owner_IdAndStartAfterOrderByStartDescIdDesc(long idOwner, LocalDateTime start, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByItem_Owner_IdAndStatusOrderByStartDescIdDesc(long idOwner, BookingStatus status, Pageable pageable);
 }
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.conditional.ResourceVersion;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.exceptions.ValidationException;
 
 import java.util.List;
 
@@ -11,13 +14,21 @@ public interface BookingService {
 
     BookingDtoResponse add(BookingDto bookingDto, long idUser) throws NotFoundDataException;
 
+    BatchResultDto addBookings(List<BookingDto> bookings, long idUser) throws NotFoundDataException, ValidationException;
+
     BookingDtoResponse approve(long idBooking, long idUser, boolean approved) throws NotOwnerException, NotFoundDataException;
 
-    List<BookingDtoResponse> getByOwner(long idUser, String state) throws NotFoundDataException;
+    BookingDtoResponse cancel(long idBooking, long idUser) throws NotOwnerException, NotFoundDataException;
+
+    List<BookingDtoResponse> getByOwner(long idUser, String state, int from, int size) throws NotFoundDataException;
 
     BookingDtoResponse get(long id) throws NotFoundDataException;
 
-    List<BookingDtoResponse> getByBooker(long idUser, String param);
+    ResourceVersion getVersion(long id) throws NotFoundDataException;
+
+    List<BookingDtoResponse> getByBooker(long idUser, String param, int from, int size);
+
+    boolean hasCompletedBooking(long idBooker, long idItem);
 
     void delete(long id);
 }
@@ -1,33 +1,60 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.conditional.ResourceVersion;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxPublisher;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.BookingConflictException;
 import ru.practicum.shareit.exceptions.BookingException;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
 import ru.practicum.shareit.exceptions.UnavailableItemException;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.paging.OffsetPageRequest;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
 @AllArgsConstructor
+@Timed("shareit.service")
 public class BookingServiceImpl implements BookingService {
 
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemRepository itemRepository;
+    private final BatchValidator batchValidator;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final OutboxPublisher outboxPublisher;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional
     public BookingDtoResponse add(BookingDto bookingDto, long idUser) throws NotFoundDataException {
 
         Optional<User> ownerOptional = Optional.ofNullable(userService.getUserById(idUser));
@@ -43,16 +70,7 @@ public class BookingServiceImpl implements BookingService {
 
         Optional<Item> itemOptional = itemRepository.findById(bookingDto.getItemId());
 
-
-        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
-            throw new BookingException("Начало или конец бронирование не может быть null");
-        } else if (bookingDto.getEnd().toLocalDate().isBefore(LocalDate.now())) {
-            throw new BookingException("Конец бронирования не может быть в прошлом");
-        } else if (bookingDto.getStart().toLocalDate().isBefore(LocalDate.now())) {
-            throw new BookingException("Начало бронирования не может быть в прошлом");
-        } else if (bookingDto.getEnd().isEqual(bookingDto.getStart())) {
-            throw new BookingException("Начало и конец бронирования не могут начинатьтся одновременно");
-        }
+        validateDates(bookingDto);
         if (itemOptional.isEmpty()) {
             throw new NotFoundDataException("Вещь не найдена");
         } else {
@@ -62,43 +80,189 @@ public class BookingServiceImpl implements BookingService {
             }
         }
 
+        if (bookingRepository.existsByItem_IdAndStatusInAndStartBeforeAndEndAfter(item.getId(), ACTIVE_STATUSES,
+                bookingDto.getEnd(), bookingDto.getStart())) {
+            throw new BookingException("Вещь уже забронирована на эти даты");
+        }
+
         bookingDto.setStatus(BookingStatus.WAITING);
 
-        return BookingMapper.toDtoResponse(bookingRepository.save(BookingMapper.fromDto(bookingDto, item, owner)));
+        try {
+            Booking booking = bookingRepository.saveAndFlush(BookingMapper.fromDto(bookingDto, item, owner));
+            availabilityIndex.put(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+            outboxPublisher.publish(EventType.BOOKING_CREATED, booking.getId(), item.getId(), idUser);
+            return BookingMapper.toDtoResponse(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingException("Вещь уже забронирована на эти даты");
+            }
+            throw e;
+        }
+    }
+
+    // No surrounding transaction: a concurrent booking that wins the exclusion constraint would roll back every row.
+    // The rows are saved together first and, if that conflicts, one transaction per row.
+    @Override
+    public BatchResultDto addBookings(List<BookingDto> bookings, long idUser) throws NotFoundDataException,
+            ValidationException {
+        batchValidator.checkSize(bookings);
+        User booker = userService.getUserById(idUser);
+
+        Set<Long> itemIds = new HashSet<>();
+        LocalDateTime minStart = null;
+        LocalDateTime maxEnd = null;
+        for (BookingDto bookingDto : bookings) {
+            if (bookingDto == null || bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+                continue;
+            }
+            itemIds.add(bookingDto.getItemId());
+            minStart = minStart == null || bookingDto.getStart().isBefore(minStart) ? bookingDto.getStart() : minStart;
+            maxEnd = maxEnd == null || bookingDto.getEnd().isAfter(maxEnd) ? bookingDto.getEnd() : maxEnd;
+        }
+
+        Map<Long, Item> items = new HashMap<>();
+        Map<Long, List<Booking>> activeBookings = new HashMap<>();
+        if (!itemIds.isEmpty()) {
+            itemRepository.findAllById(itemIds).forEach(item -> items.put(item.getId(), item));
+            bookingRepository.findByItem_IdInAndStatusInAndStartBeforeAndEndAfter(itemIds, ACTIVE_STATUSES, maxEnd, minStart)
+                    .forEach(booking -> activeBookings.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>())
+                            .add(booking));
+        }
+
+        BatchResultDto result = new BatchResultDto();
+        List<Integer> rows = new ArrayList<>();
+        List<BookingDto> accepted = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            BookingDto bookingDto = bookings.get(i);
+            try {
+                if (bookingDto == null) {
+                    throw new BookingException("Пустая строка");
+                }
+                validateDates(bookingDto);
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new BookingException("Вещь не найдена");
+                }
+                if (!item.isAvailable()) {
+                    throw new BookingException("Вещь не доступна");
+                }
+                List<Booking> itemBookings = activeBookings.computeIfAbsent(item.getId(), id -> new ArrayList<>());
+                if (overlaps(itemBookings, bookingDto.getStart(), bookingDto.getEnd())) {
+                    throw new BookingException("Вещь уже забронирована на эти даты");
+                }
+
+                bookingDto.setStatus(BookingStatus.WAITING);
+                itemBookings.add(BookingMapper.fromDto(bookingDto, item, booker));
+                rows.add(i);
+                accepted.add(bookingDto);
+            } catch (BookingException e) {
+                result.addError(i, e.getMessage());
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> saveBookings(accepted, rows, items, booker, result));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            for (int i = 0; i < accepted.size(); i++) {
+                List<BookingDto> row = List.of(accepted.get(i));
+                List<Integer> index = List.of(rows.get(i));
+                try {
+                    transaction.executeWithoutResult(status -> saveBookings(row, index, items, booker, result));
+                } catch (DataIntegrityViolationException rowError) {
+                    if (!isOverlapViolation(rowError)) {
+                        throw rowError;
+                    }
+                    result.addError(rows.get(i), "Вещь уже забронирована на эти даты");
+                }
+            }
+        }
+        return result;
+    }
+
+    private void saveBookings(List<BookingDto> bookings, List<Integer> rows, Map<Long, Item> items, User booker,
+                              BatchResultDto result) {
+        List<Booking> savedBookings = bookingRepository.saveAllAndFlush(bookings.stream()
+                .map(bookingDto -> BookingMapper.fromDto(bookingDto, items.get(bookingDto.getItemId()), booker))
+                .toList());
+        for (int i = 0; i < savedBookings.size(); i++) {
+            Booking booking = savedBookings.get(i);
+            availabilityIndex.put(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+            outboxPublisher.publish(EventType.BOOKING_CREATED, booking.getId(), booking.getItem().getId(),
+                    booker.getId());
+            result.addCreated(rows.get(i), booking.getId());
+        }
     }
 
     @Override
+    @Transactional
     public BookingDtoResponse approve(long idBooking, long idUser, boolean approved) throws NotOwnerException, NotFoundDataException {
-        if (bookingRepository.getOwnerIdByBookingId(idBooking) != idUser) {
-            throw new NotOwnerException("Пользователь не владелец");
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        Optional<BookingRow> row = bookingRepository.changeStatusByOwner(idBooking, idUser,
+                BookingStatus.sourcesOf(status), status.name());
+        if (row.isPresent()) {
+            BookingRow bookingRow = row.get();
+            if (status == BookingStatus.APPROVED) {
+                availabilityIndex.put(bookingRow.getItemId(), bookingRow.getId(), bookingRow.getStart(),
+                        bookingRow.getEnd());
+            } else {
+                availabilityIndex.remove(bookingRow.getItemId(), bookingRow.getId());
+            }
+            outboxPublisher.publish(EventType.BOOKING_STATUS_CHANGED, bookingRow.getId(), bookingRow.getItemId(),
+                    idUser, status.name());
+            return BookingMapper.toDtoResponse(bookingRow);
         }
 
-        if (approved) {
-            bookingRepository.setNewStatus(idBooking, BookingStatus.APPROVED.name());
-        } else {
-            bookingRepository.setNewStatus(idBooking, BookingStatus.REJECTED.name());
+        Optional<Booking> bookingOptional = bookingRepository.findById(idBooking);
+        if (bookingOptional.isEmpty()) {
+            throw new NotFoundDataException("Бронь не найдена");
+        }
+        if (bookingOptional.get().getItem().getOwner().getId() != idUser) {
+            throw new NotOwnerException("Пользователь не владелец");
         }
+        throw new BookingConflictException("Бронь в статусе " + bookingOptional.get().getStatus()
+                + " не может перейти в " + status);
+    }
 
+    @Override
+    @Transactional
+    public BookingDtoResponse cancel(long idBooking, long idUser) throws NotOwnerException, NotFoundDataException {
         Optional<Booking> bookingOptional = bookingRepository.findById(idBooking);
         if (bookingOptional.isEmpty()) {
             throw new NotFoundDataException("Бронь не найдена");
         }
 
-        return BookingMapper.toDtoResponse(bookingOptional.get());
+        Booking booking = bookingOptional.get();
+        if (booking.getBooker().getId() != idUser) {
+            throw new NotOwnerException("Пользователь не автор брони");
+        }
+        if (!booking.getStatus().canBecome(BookingStatus.CANCELED)) {
+            throw new BookingConflictException("Бронь в статусе " + booking.getStatus() + " нельзя отменить");
+        }
+
+        booking.setStatus(BookingStatus.CANCELED);
+        Booking canceled = bookingRepository.saveAndFlush(booking);
+        availabilityIndex.remove(canceled.getItem().getId(), canceled.getId());
+        outboxPublisher.publish(EventType.BOOKING_STATUS_CHANGED, canceled.getId(), canceled.getItem().getId(),
+                idUser, BookingStatus.CANCELED.name());
+        return BookingMapper.toDtoResponse(canceled);
     }
 
     @Override
-    public List<BookingDtoResponse> getByOwner(long idUser, String state) throws NotFoundDataException {
-        if (Optional.ofNullable(userService.getUserById(idUser)).isEmpty()) {
+    @Transactional(readOnly = true)
+    public List<BookingDtoResponse> getByOwner(long idUser, String state, int from, int size) throws NotFoundDataException {
+        if (!userService.existsById(idUser)) {
             throw new NotFoundDataException("Пользователь не найден");
         }
 
-        List<Booking> bookingList = bookingRepository.getBookingsByOwnerId(idUser);
-
-        return getModifiedBookingList(bookingList, state);
+        return toDtoResponseList(findOwnerBookings(idUser, BookingState.from(state), OffsetPageRequest.of(from, size)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDtoResponse get(long id) throws NotFoundDataException {
         Optional<Booking> bookingOptional = bookingRepository.findById(id);
         if (bookingOptional.isEmpty()) {
@@ -109,54 +273,115 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDtoResponse> getByBooker(long idUser, String param) {
-        List<Booking> bookingList = bookingRepository.findByBooker_Id(idUser);
+    @Transactional(readOnly = true)
+    public ResourceVersion getVersion(long id) throws NotFoundDataException {
+        Optional<LocalDateTime> updatedAt = bookingRepository.findVersionById(id);
+        if (updatedAt.isEmpty()) {
+            throw new NotFoundDataException("Бронь не найдена");
+        }
 
-        return getModifiedBookingList(bookingList, param);
+        return ResourceVersion.of(id, updatedAt.get());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<BookingDtoResponse> getByBooker(long idUser, String param, int from, int size) {
+        return toDtoResponseList(findBookerBookings(idUser, BookingState.from(param), OffsetPageRequest.of(from, size)));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.COMPLETED_BOOKINGS, key = "{#idBooker, #idItem}", unless = "!#result")
+    public boolean hasCompletedBooking(long idBooker, long idItem) {
+        return bookingRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(idBooker, idItem,
+                BookingStatus.APPROVED, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
     public void delete(long id) {
-        bookingRepository.deleteById(id);
-    }
-
-    private List<BookingDtoResponse> getModifiedBookingList(List<Booking> bookingList, String param) {
-
-        List<BookingDtoResponse> result = new ArrayList<>();
-
-        switch (param.toUpperCase()) {
-            case ("ALL"):
-                result.addAll(bookingList.stream()
-                        .map(BookingMapper::toDtoResponse)
-                        .toList());
-                break;
-            case ("CURRENT"):
-                result.addAll(bookingList.stream()
-                        .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()) &&
-                                booking.getEnd().isAfter(LocalDateTime.now()))
-                        .map(BookingMapper::toDtoResponse)
-                        .toList());
-                break;
-            case ("PAST"):
-                result.addAll(bookingList.stream()
-                        .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                        .map(BookingMapper::toDtoResponse)
-                        .toList());
-                break;
-            case ("WAITING"):
-                result.addAll(bookingList.stream()
-                        .filter(booking -> booking.getStatus().equals(BookingStatus.WAITING))
-                        .map(BookingMapper::toDtoResponse)
-                        .toList());
-                break;
-            case ("REJECTED"):
-                result.addAll(bookingList.stream()
-                        .filter(booking -> booking.getStatus().equals(BookingStatus.REJECTED))
-                        .map(BookingMapper::toDtoResponse)
-                        .toList());
-                break;
+        bookingRepository.findById(id).ifPresent(booking -> {
+            bookingRepository.delete(booking);
+            availabilityIndex.remove(booking.getItem().getId(), id);
+            outboxPublisher.publish(EventType.BOOKING_DELETED, id, booking.getItem().getId(),
+                    booking.getBooker().getId());
+        });
+    }
+
+    private void validateDates(BookingDto bookingDto) {
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            throw new BookingException("Начало или конец бронирование не может быть null");
+        } else if (bookingDto.getEnd().toLocalDate().isBefore(LocalDate.now())) {
+            throw new BookingException("Конец бронирования не может быть в прошлом");
+        } else if (bookingDto.getStart().toLocalDate().isBefore(LocalDate.now())) {
+            throw new BookingException("Начало бронирования не может быть в прошлом");
+        } else if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
+            throw new BookingException("Конец бронирования не может быть раньше начала");
+        } else if (bookingDto.getEnd().isEqual(bookingDto.getStart())) {
+            throw new BookingException("Начало и конец бронирования не могут начинатьтся одновременно");
         }
+    }
 
-        return result;
+    private boolean overlaps(List<Booking> bookings, LocalDateTime start, LocalDateTime end) {
+        return bookings.stream()
+                .anyMatch(booking -> booking.getStart().isBefore(end) && booking.getEnd().isAfter(start));
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Booking> findOwnerBookings(long idOwner, BookingState state, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+
+        switch (state) {
+            case CURRENT:
+                return bookingRepository.findByItem_Owner_IdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(idOwner,
+                        now, now, pageable);
+            case PAST:
+                return bookingRepository.findByItem_Owner_IdAndEndBeforeOrderByStartDescIdDesc(idOwner, now, pageable);
+            case FUTURE:
+                return bookingRepository.findByItem_Owner_IdAndStartAfterOrderByStartDescIdDesc(idOwner, now, pageable);
+            case WAITING:
+                return bookingRepository.findByItem_Owner_IdAndStatusOrderByStartDescIdDesc(idOwner,
+                        BookingStatus.WAITING, pageable);
+            case REJECTED:
+                return bookingRepository.findByItem_Owner_IdAndStatusOrderByStartDescIdDesc(idOwner,
+                        BookingStatus.REJECTED, pageable);
+            default:
+                return bookingRepository.findByItem_Owner_IdOrderByStartDescIdDesc(idOwner, pageable);
+        }
+    }
+
+    private List<Booking> findBookerBookings(long idBooker, BookingState state, Pageable pageable) {
+        LocalDateTime now = LocalDateTime.now();
+
+        switch (state) {
+            case CURRENT:
+                return bookingRepository.findByBooker_IdAndStartBeforeAndEndAfterOrderByStartDescIdDesc(idBooker,
+                        now, now, pageable);
+            case PAST:
+                return bookingRepository.findByBooker_IdAndEndBeforeOrderByStartDescIdDesc(idBooker, now, pageable);
+            case FUTURE:
+                return bookingRepository.findByBooker_IdAndStartAfterOrderByStartDescIdDesc(idBooker, now, pageable);
+            case WAITING:
+                return bookingRepository.findByBooker_IdAndStatusOrderByStartDescIdDesc(idBooker,
+                        BookingStatus.WAITING, pageable);
+            case REJECTED:
+                return bookingRepository.findByBooker_IdAndStatusOrderByStartDescIdDesc(idBooker,
+                        BookingStatus.REJECTED, pageable);
+            default:
+                return bookingRepository.findByBooker_IdOrderByStartDescIdDesc(idBooker, pageable);
+        }
+    }
+
+    private List<BookingDtoResponse> toDtoResponseList(List<Booking> bookingList) {
+        return bookingList.stream()
+                .map(BookingMapper::toDtoResponse)
+                .toList();
     }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exceptions.BookingException;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equalsIgnoreCase(state)) {
+                return value;
+            }
+        }
+        throw new BookingException("Unknown state: " + state);
+    }
+}
@@ -1,8 +1,35 @@
 package ru.practicum.shareit.booking;
 
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    private static final Map<BookingStatus, Set<BookingStatus>> TRANSITIONS = new EnumMap<>(BookingStatus.class);
+
+    static {
+        TRANSITIONS.put(WAITING, EnumSet.of(APPROVED, REJECTED, CANCELED));
+        TRANSITIONS.put(APPROVED, EnumSet.of(CANCELED));
+        TRANSITIONS.put(REJECTED, EnumSet.noneOf(BookingStatus.class));
+        TRANSITIONS.put(CANCELED, EnumSet.noneOf(BookingStatus.class));
+    }
+
+    public boolean canBecome(BookingStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    public static List<String> sourcesOf(BookingStatus target) {
+        return Arrays.stream(values())
+                .filter(status -> status.canBecome(target))
+                .map(Enum::name)
+                .toList();
+    }
 }
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Per-item calendars of WAITING and APPROVED bookings, ordered by start and booking id.
+ * Bookings may overlap where no exclusion constraint guards them, e.g. on H2, so each booking keeps its own entry.
+ * Free-slot queries sweep the bookings that start within the longest booking before the window, in O(log n + k).
+ * A calendar is loaded from the database on first use and then updated after each committed booking change.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+public class ItemAvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemCalendar> calendars;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.availability.maximum-items:10000}") long maximumItems,
+                                 @Value("${shareit.availability.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = Caffeine.newBuilder()
+                .maximumSize(maximumItems)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public List<AvailabilitySlotDto> freeSlots(long idItem, LocalDateTime from, LocalDateTime to) {
+        return calendars.get(idItem, this::load).freeSlots(from, to);
+    }
+
+    public void put(long idItem, long idBooking, LocalDateTime start, LocalDateTime end) {
+        afterCommit(() -> calendars.asMap().computeIfPresent(idItem,
+                (id, calendar) -> calendar.put(idBooking, start, end)));
+    }
+
+    public void remove(long idItem, long idBooking) {
+        afterCommit(() -> calendars.asMap().computeIfPresent(idItem,
+                (id, calendar) -> calendar.remove(idBooking)));
+    }
+
+    public void invalidate(long idItem) {
+        afterCommit(() -> calendars.invalidate(idItem));
+    }
+
+    private ItemCalendar load(long idItem) {
+        ItemCalendar calendar = new ItemCalendar();
+        for (Booking booking : bookingRepository.findByItem_id(idItem)) {
+            if (booking.getStatus() == BookingStatus.WAITING || booking.getStatus() == BookingStatus.APPROVED) {
+                calendar.put(booking.getId(), booking.getStart(), booking.getEnd());
+            }
+        }
+        return calendar;
+    }
+
+    // computeIfPresent waits for a load of the same item, so a change committed during the load is not lost.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static class ItemCalendar {
+        private final NavigableMap<BookingKey, LocalDateTime> endByStart = new TreeMap<>();
+        private final Map<Long, LocalDateTime> startByBooking = new HashMap<>();
+        private Duration longest = Duration.ZERO;
+
+        synchronized ItemCalendar put(long idBooking, LocalDateTime start, LocalDateTime end) {
+            remove(idBooking);
+            endByStart.put(new BookingKey(start, idBooking), end);
+            startByBooking.put(idBooking, start);
+            Duration length = Duration.between(start, end);
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+            return this;
+        }
+
+        synchronized ItemCalendar remove(long idBooking) {
+            LocalDateTime start = startByBooking.remove(idBooking);
+            if (start != null) {
+                endByStart.remove(new BookingKey(start, idBooking));
+            }
+            return this;
+        }
+
+        // Bookings starting more than the longest booking before from cannot reach into the window.
+        synchronized List<AvailabilitySlotDto> freeSlots(LocalDateTime from, LocalDateTime to) {
+            List<AvailabilitySlotDto> slots = new ArrayList<>();
+            LocalDateTime cursor = from;
+            for (Map.Entry<BookingKey, LocalDateTime> booked : endByStart.subMap(BookingKey.first(from.minus(longest)),
+                    true, BookingKey.first(to), false).entrySet()) {
+                LocalDateTime start = booked.getKey().start;
+                if (start.isAfter(cursor)) {
+                    slots.add(new AvailabilitySlotDto(cursor, start));
+                }
+                if (booked.getValue().isAfter(cursor)) {
+                    cursor = booked.getValue();
+                }
+            }
+            if (cursor.isBefore(to)) {
+                slots.add(new AvailabilitySlotDto(cursor, to));
+            }
+            return slots;
+        }
+    }
+
+    private static class BookingKey implements Comparable<BookingKey> {
+        private final LocalDateTime start;
+        private final long idBooking;
+
+        BookingKey(LocalDateTime start, long idBooking) {
+            this.start = start;
+            this.idBooking = idBooking;
+        }
+
+        static BookingKey first(LocalDateTime start) {
+            return new BookingKey(start, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(BookingKey other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Long.compare(idBooking, other.idBooking);
+        }
+    }
+}
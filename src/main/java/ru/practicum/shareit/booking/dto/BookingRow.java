@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingRow {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    String getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    Long getBookerId();
+
+    String getBookerName();
+}
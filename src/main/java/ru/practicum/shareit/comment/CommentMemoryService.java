@@ -0,0 +1,19 @@
+package ru.practicum.shareit.comment;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.exceptions.BookingException;
+
+/**
+ * The memory storage keeps no bookings, so no user is ever allowed to comment.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "memory")
+public class CommentMemoryService implements CommentService {
+
+    @Override
+    public CommentDto postComment(long idItem, long idUser, String text) {
+        throw new BookingException("Item was not booked by the user");
+    }
+}
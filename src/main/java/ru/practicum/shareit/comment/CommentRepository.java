@@ -1,10 +1,16 @@
 package ru.practicum.shareit.comment;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(attributePaths = {"author", "item"})
     List<Comment> findByItem_id(long idItem);
+
+    @EntityGraph(attributePaths = {"author", "item"})
+    List<Comment> findByItem_IdIn(Collection<Long> itemIds);
 }
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.comment;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingService;
-import ru.practicum.shareit.booking.dto.BookingDtoResponse;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxPublisher;
 import ru.practicum.shareit.exceptions.BookingException;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.item.ItemRepository;
@@ -13,55 +17,43 @@ import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
 @AllArgsConstructor
+@Timed("shareit.service")
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final BookingService bookingService;
     private final ItemRepository itemRepository;
+    private final OutboxPublisher outboxPublisher;
 
     @Override
+    @Transactional
     public CommentDto postComment(long idItem, long idUser, String text) throws BookingException, NotFoundDataException {
-        List<BookingDtoResponse> bookingDtoResponseList = bookingService.getByBooker(idUser, "ALL");
-        String[] splitText = text.split(":");
-        String resText = splitText[1].substring(splitText[1].indexOf('"') + 1, splitText[1].lastIndexOf('"'));
-
-        if (bookingDtoResponseList
-                .stream()
-                .filter(bookingDtoResponse -> bookingDtoResponse.getItem().getId() == idItem)
-                .filter(bookingDtoResponse -> bookingDtoResponse.getEnd().isBefore(LocalDateTime.now()))
-                .findFirst()
-                .isEmpty()) {
+        if (!bookingService.hasCompletedBooking(idUser, idItem)) {
             throw new BookingException("Item was not booked by the user");
         }
-        Optional<User> userOptional = Optional.ofNullable(userService.getUserById(idUser));
-
-        if (userOptional.isEmpty()) {
-            throw new NotFoundDataException("User not found");
-        }
 
-        Optional<Item> itemOptional = itemRepository.findById(idItem);
-        Item item;
+        User user = userService.getUserById(idUser);
 
+        Optional<Item> itemOptional = itemRepository.findWithoutOwnerById(idItem);
         if (itemOptional.isEmpty()) {
             throw new NotFoundDataException("Item not found");
-        } else {
-            item = itemOptional.get();
         }
 
         Comment comment = Comment.builder()
-                .text(resText)
-                .item(item)
-                .author(userOptional.get())
+                .text(text)
+                .item(itemOptional.get())
+                .author(user)
                 .created(LocalDateTime.now())
                 .build();
 
         Comment newComment = commentRepository.save(comment);
+        outboxPublisher.publish(EventType.COMMENT_POSTED, newComment.getId(), idItem, idUser);
 
         return CommentMapper.toDto(newComment);
     }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.comment.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentRequestDto {
+    @NotBlank
+    @Size(max = 1000)
+    private String text;
+}
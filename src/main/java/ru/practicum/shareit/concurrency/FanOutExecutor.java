@@ -0,0 +1,86 @@
+package ru.practicum.shareit.concurrency;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.RoutingContext;
+import ru.practicum.shareit.metrics.QueryCountingStatementInspector;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent reads of a composite response concurrently.
+ * Tasks run on virtual threads when spring.threads.virtual.enabled is set, otherwise on a fixed platform pool.
+ * At most shareit.fan-out.max-concurrency tasks run at once, which keeps fan-out below the connection pool size.
+ * Tasks inherit the caller's data source routing, so reads of a read-only service method stay on a replica.
+ * Callers that wait on tasks must not hold a connection themselves, otherwise every waiting request pins two.
+ * Statements of a task are counted towards the caller's request.
+ */
+@Component
+public class FanOutExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final QueryCountingStatementInspector statementInspector;
+
+    public FanOutExecutor(QueryCountingStatementInspector statementInspector,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                          @Value("${shareit.fan-out.max-concurrency:10}") int maxConcurrency) {
+        this.statementInspector = statementInspector;
+        this.executor = virtualThreads ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(maxConcurrency, new NamedThreadFactory());
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return run(RoutingContext.propagate(task));
+    }
+
+    /**
+     * Runs a read that may go to a replica although the caller has no read-only transaction.
+     */
+    public <T> CompletableFuture<T> supplyReadOnly(Supplier<T> task) {
+        return run(RoutingContext.propagateReadOnly(task));
+    }
+
+    private <T> CompletableFuture<T> run(Supplier<T> routedTask) {
+        Supplier<T> countedTask = statementInspector.propagate(routedTask);
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return countedTask.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
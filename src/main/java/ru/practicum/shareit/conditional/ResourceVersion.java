@@ -0,0 +1,53 @@
+package ru.practicum.shareit.conditional;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Strong ETag and Last-Modified of a representation, derived from the timestamps and counts it depends on.
+ */
+@Getter
+public class ResourceVersion {
+
+    private static final int ETAG_BYTES = 16;
+
+    private final String eTag;
+    private final long lastModified;
+
+    private ResourceVersion(String eTag, long lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public static ResourceVersion of(Object... parts) {
+        LocalDateTime latest = Arrays.stream(parts)
+                .filter(LocalDateTime.class::isInstance)
+                .map(LocalDateTime.class::cast)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        long lastModified = latest == null ? -1 : latest.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        return new ResourceVersion("\"" + hash(parts) + "\"", lastModified);
+    }
+
+    private static String hash(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(Objects.toString(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), ETAG_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USER_EXISTS = "userExists";
+    public static final String REQUEST_FEED = "requestFeed";
+    public static final String COMPLETED_BOOKINGS = "completedBookings";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> userCacheCustomizer(
+            @Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.cache.users.ttl:10m}") Duration ttl) {
+        return cacheManager -> {
+            cacheManager.registerCustomCache(USERS, boundedCache(maximumSize, ttl));
+            cacheManager.registerCustomCache(USER_EXISTS, boundedCache(maximumSize, ttl));
+        };
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> requestFeedCacheCustomizer(
+            @Value("${shareit.cache.request-feed.maximum-size:1000}") long maximumSize,
+            @Value("${shareit.cache.request-feed.ttl:1m}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(REQUEST_FEED, boundedCache(maximumSize, ttl));
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> completedBookingsCacheCustomizer(
+            @Value("${shareit.cache.completed-bookings.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.cache.completed-bookings.ttl:1h}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(COMPLETED_BOOKINGS, boundedCache(maximumSize, ttl));
+    }
+
+    private static Cache<Object, Object> boundedCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.datasource.RoutingContext;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured pool with the primary pool plus optional read replicas
+ * (shareit.datasource.replica-urls, same credentials as the primary).
+ * Without replicas every connection goes to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        if (details != null) {
+            dataSource.setJdbcUrl(details.getJdbcUrl());
+            dataSource.setUsername(details.getUsername());
+            dataSource.setPassword(details.getPassword());
+            dataSource.setDriverClassName(details.getDriverClassName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(
+            HikariDataSource primaryDataSource,
+            @Value("${shareit.datasource.replica-urls:}") List<String> replicaUrls,
+            @Value("${shareit.datasource.replica-pool-size:10}") int replicaPoolSize,
+            @Value("${shareit.datasource.health-check-interval:5s}") Duration checkInterval,
+            @Value("${shareit.datasource.health-check-timeout:1s}") Duration checkTimeout) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(primaryDataSource.getUsername());
+            replica.setPassword(primaryDataSource.getPassword());
+            replica.setDriverClassName(primaryDataSource.getDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, checkInterval, checkTimeout);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Applied by Spring Boot to the application task executor, which runs MVC async work such as streamed exports,
+     * so those keep the request's routing, e.g. the primary right after the user's own write.
+     */
+    @Bean
+    public TaskDecorator routingContextTaskDecorator() {
+        return RoutingContext::propagateRunnable;
+    }
+}
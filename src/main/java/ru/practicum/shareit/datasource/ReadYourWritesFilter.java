@@ -0,0 +1,115 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps write requests on the primary, and keeps every request of a user there for
+ * shareit.datasource.read-your-writes-window after that user's last write, so replica lag never hides it.
+ * A write counts for the user of the X-Sharer-User-Id header and for the user of a /users/{id} path.
+ * Writes also set a cookie for the same window, which covers clients that send neither, e.g. after POST /users.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    static final String PRIMARY_COOKIE = "SHAREIT_PRIMARY";
+    private static final Pattern USER_PATH = Pattern.compile("/users/(\\d+)");
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<Long, Boolean> recentWriters;
+    private final int cookieMaxAge;
+
+    public ReadYourWritesFilter(@Value("${shareit.datasource.read-your-writes-window:5s}") Duration window) {
+        this.cookieMaxAge = (int) Math.max(1, (window.toMillis() + 999) / 1000);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Set<Long> userIds = userIds(request);
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write) {
+            userIds.forEach(userId -> recentWriters.put(userId, Boolean.TRUE));
+            Cookie cookie = new Cookie(PRIMARY_COOKIE, "1");
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(cookieMaxAge);
+            response.addCookie(cookie);
+        }
+
+        RoutingContext.setPrimaryOnly(write || hasPrimaryCookie(request)
+                || userIds.stream().anyMatch(userId -> recentWriters.getIfPresent(userId) != null));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingContext.clear();
+            if (write) {
+                userIds.forEach(userId -> recentWriters.put(userId, Boolean.TRUE));
+            }
+        }
+    }
+
+    private static Set<Long> userIds(HttpServletRequest request) {
+        Set<Long> userIds = new HashSet<>(2);
+        Long headerUserId = userId(request);
+        if (headerUserId != null) {
+            userIds.add(headerUserId);
+        }
+        Matcher matcher = USER_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        if (matcher.matches()) {
+            try {
+                userIds.add(Long.valueOf(matcher.group(1)));
+            } catch (NumberFormatException ignore) {
+                // Longer than any user id.
+            }
+        }
+        return userIds;
+    }
+
+    private static boolean hasPrimaryCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (PRIMARY_COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException ignore) {
+            return null;
+        }
+    }
+}
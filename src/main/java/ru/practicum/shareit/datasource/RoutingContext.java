@@ -0,0 +1,74 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing hints read by {@link ReplicaRoutingDataSource}.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<Boolean> READ_ONLY = ThreadLocal.withInitial(() -> false);
+
+    private RoutingContext() {
+    }
+
+    public static void setPrimaryOnly(boolean primaryOnly) {
+        PRIMARY_ONLY.set(primaryOnly);
+    }
+
+    public static void clear() {
+        PRIMARY_ONLY.remove();
+        READ_ONLY.remove();
+    }
+
+    static boolean isReplicaEligible() {
+        return !PRIMARY_ONLY.get()
+                && (READ_ONLY.get() || TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    /**
+     * Carries the caller's hints, including a surrounding read-only transaction, to a task run on another thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        return propagate(task, false);
+    }
+
+    /**
+     * Runnable form of {@link #propagate(Supplier)}, e.g. for a task executor's decorator.
+     */
+    public static Runnable propagateRunnable(Runnable task) {
+        Supplier<Void> propagated = propagate(() -> {
+            task.run();
+            return null;
+        });
+        return propagated::get;
+    }
+
+    /**
+     * Like {@link #propagate(Supplier)}, but marks the task read-only for callers that run it outside a transaction.
+     */
+    public static <T> Supplier<T> propagateReadOnly(Supplier<T> task) {
+        return propagate(task, true);
+    }
+
+    private static <T> Supplier<T> propagate(Supplier<T> task, boolean forceReadOnly) {
+        boolean primaryOnly = PRIMARY_ONLY.get();
+        boolean readOnly = forceReadOnly || READ_ONLY.get()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return () -> {
+            boolean previousPrimaryOnly = PRIMARY_ONLY.get();
+            boolean previousReadOnly = READ_ONLY.get();
+            PRIMARY_ONLY.set(primaryOnly);
+            READ_ONLY.set(readOnly);
+            try {
+                return task.get();
+            } finally {
+                PRIMARY_ONLY.set(previousPrimaryOnly);
+                READ_ONLY.set(previousReadOnly);
+            }
+        };
+    }
+}
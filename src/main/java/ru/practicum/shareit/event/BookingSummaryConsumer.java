@@ -0,0 +1,41 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Recomputes the booking summaries of items whose bookings changed, once per item and batch.
+ * The relay deletes the events only after this returns, so until then reads of the item fall back to the bookings.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+public class BookingSummaryConsumer implements EventConsumer {
+
+    private static final Set<EventType> BOOKING_EVENTS = Set.of(EventType.BOOKING_CREATED,
+            EventType.BOOKING_STATUS_CHANGED, EventType.BOOKING_DELETED);
+
+    private final ItemBookingSummaryService summaryService;
+    private final Set<Long> changedItems = new TreeSet<>();
+
+    public BookingSummaryConsumer(ItemBookingSummaryService summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, boolean endOfBatch) {
+        if (BOOKING_EVENTS.contains(event.getType()) && event.getItemId() != null) {
+            changedItems.add(event.getItemId());
+        }
+        if (endOfBatch && !changedItems.isEmpty()) {
+            try {
+                summaryService.refreshAll(changedItems);
+            } finally {
+                changedItems.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.config.CacheConfig;
+
+import java.util.List;
+
+/**
+ * Drops the cached completed-booking check of the booker and item whose booking is canceled or deleted, and
+ * the cached request feed once per batch that changes or deletes an item answering a request.
+ */
+@Component
+public class CacheEvictionConsumer implements EventConsumer {
+
+    private final CacheManager cacheManager;
+    private boolean requestFeedChanged;
+
+    public CacheEvictionConsumer(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, boolean endOfBatch) {
+        if (event.getType() == EventType.BOOKING_DELETED
+                || (event.getType() == EventType.BOOKING_STATUS_CHANGED
+                && BookingStatus.CANCELED.name().equals(event.getDetail()))) {
+            evictCompletedBooking(event.getUserId(), event.getItemId());
+        }
+        if ((event.getType() == EventType.ITEM_UPDATED || event.getType() == EventType.ITEM_DELETED)
+                && event.getDetail() != null) {
+            requestFeedChanged = true;
+        }
+        if (endOfBatch && requestFeedChanged) {
+            clear(CacheConfig.REQUEST_FEED);
+            requestFeedChanged = false;
+        }
+    }
+
+    // Same key as the {#idBooker, #idItem} list BookingServiceImpl.hasCompletedBooking caches under.
+    private void evictCompletedBooking(Long idBooker, Long idItem) {
+        Cache cache = cacheManager.getCache(CacheConfig.COMPLETED_BOOKINGS);
+        if (cache != null && idBooker != null && idItem != null) {
+            cache.evict(List.of(idBooker, idItem));
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
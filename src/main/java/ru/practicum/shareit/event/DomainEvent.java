@@ -0,0 +1,28 @@
+package ru.practicum.shareit.event;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One slot of the {@link EventRingBuffer}. Slots are reused, so consumers must copy
+ * whatever they keep beyond {@link EventConsumer#onEvent}.
+ */
+@Getter
+public class DomainEvent {
+    private EventType type;
+    private long aggregateId;
+    private Long itemId;
+    private Long userId;
+    private String detail;
+    private LocalDateTime createdAt;
+
+    void copyFrom(OutboxEvent event) {
+        type = event.getType();
+        aggregateId = event.getAggregateId();
+        itemId = event.getItemId();
+        userId = event.getUserId();
+        detail = event.getDetail();
+        createdAt = event.getCreatedAt();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.event;
+
+/**
+ * Receives every domain event on the dispatcher thread, at least once and in outbox order.
+ * endOfBatch marks the last event currently available, a good point to flush batched work.
+ */
+public interface EventConsumer {
+
+    void onEvent(DomainEvent event, boolean endOfBatch);
+}
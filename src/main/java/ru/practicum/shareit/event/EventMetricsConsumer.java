@@ -0,0 +1,37 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class EventMetricsConsumer implements EventConsumer {
+
+    private final Map<EventType, Counter> counters = new EnumMap<>(EventType.class);
+    private final Timer delay;
+
+    public EventMetricsConsumer(MeterRegistry meterRegistry) {
+        for (EventType type : EventType.values()) {
+            counters.put(type, Counter.builder("shareit.events")
+                    .description("Domain events dispatched")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        delay = Timer.builder("shareit.events.delay")
+                .description("Time from writing an event to dispatching it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onEvent(DomainEvent event, boolean endOfBatch) {
+        counters.get(event.getType()).increment();
+        delay.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.event;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer, single-consumer ring of preallocated {@link DomainEvent} slots.
+ * Publishing copies into a slot instead of allocating, and blocks while the ring is full.
+ */
+class EventRingBuffer {
+
+    private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final DomainEvent[] slots;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong(-1);
+    private final AtomicLong consumed = new AtomicLong(-1);
+
+    EventRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        slots = new DomainEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new DomainEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    long publish(OutboxEvent event) throws InterruptedException {
+        long sequence = published.get() + 1;
+        while (sequence - consumed.get() > slots.length) {
+            await();
+        }
+        slots[(int) (sequence & mask)].copyFrom(event);
+        published.set(sequence);
+        return sequence;
+    }
+
+    void awaitConsumed(long sequence) throws InterruptedException {
+        while (consumed.get() < sequence) {
+            await();
+        }
+    }
+
+    int drain(EventConsumer consumer, int maxBatch) {
+        long next = consumed.get() + 1;
+        long last = Math.min(published.get(), next + maxBatch - 1);
+        if (last < next) {
+            return 0;
+        }
+        for (long sequence = next; sequence <= last; sequence++) {
+            consumer.onEvent(slots[(int) (sequence & mask)], sequence == last);
+        }
+        consumed.set(last);
+        return (int) (last - next + 1);
+    }
+
+    long backlog() {
+        return published.get() - consumed.get();
+    }
+
+    private static void await() throws InterruptedException {
+        LockSupport.parkNanos(WAIT_NANOS);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
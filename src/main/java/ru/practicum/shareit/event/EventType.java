@@ -0,0 +1,10 @@
+package ru.practicum.shareit.event;
+
+public enum EventType {
+    BOOKING_CREATED,
+    BOOKING_STATUS_CHANGED,
+    BOOKING_DELETED,
+    COMMENT_POSTED,
+    ITEM_UPDATED,
+    ITEM_DELETED
+}
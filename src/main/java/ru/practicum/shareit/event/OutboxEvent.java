@@ -0,0 +1,31 @@
+package ru.practicum.shareit.event;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events")
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    private long id;
+    @Enumerated(EnumType.STRING)
+    private EventType type;
+    @Column(name = "aggregate_id")
+    private long aggregateId;
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "user_id")
+    private Long userId;
+    private String detail;
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
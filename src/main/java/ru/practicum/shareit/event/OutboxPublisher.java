@@ -0,0 +1,46 @@
+package ru.practicum.shareit.event;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes domain events to the outbox in the caller's transaction and wakes the relay after it commits.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+@AllArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxRelay outboxRelay;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(EventType type, long aggregateId, Long itemId, Long userId) {
+        publish(type, aggregateId, itemId, userId, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(EventType type, long aggregateId, Long itemId, Long userId, String detail) {
+        outboxRepository.save(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .itemId(itemId)
+                .userId(userId)
+                .detail(detail)
+                .createdAt(LocalDateTime.now())
+                .build());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.RoutingContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves committed outbox rows through the {@link EventRingBuffer} to every {@link EventConsumer}.
+ * The relay thread reads a batch in id order, publishes it, waits until the dispatcher thread has handed it
+ * to the consumers and only then deletes the rows, so events survive a crash and are delivered at least once.
+ * A full ring blocks the relay, leaving the backlog in the table rather than in memory.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+public class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxRepository outboxRepository;
+    private final List<EventConsumer> consumers;
+    private final EventRingBuffer ringBuffer;
+    private final EventConsumer fanOut = this::deliver;
+    private final int batchSize;
+    private final long pollIntervalNanos;
+    private volatile boolean running;
+    private volatile Thread relayThread;
+    private volatile Thread dispatcherThread;
+
+    public OutboxRelay(OutboxRepository outboxRepository, List<EventConsumer> consumers, MeterRegistry meterRegistry,
+                       @Value("${shareit.events.buffer-size:1024}") int bufferSize,
+                       @Value("${shareit.events.batch-size:256}") int batchSize,
+                       @Value("${shareit.events.poll-interval:1s}") Duration pollInterval) {
+        this.outboxRepository = outboxRepository;
+        this.consumers = consumers;
+        this.ringBuffer = new EventRingBuffer(bufferSize);
+        this.batchSize = batchSize;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        Gauge.builder("shareit.events.backlog", ringBuffer, EventRingBuffer::backlog)
+                .description("Events published to the ring and not yet dispatched")
+                .register(meterRegistry);
+    }
+
+    public void wakeUp() {
+        Thread thread = relayThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcherThread = startThread("event-dispatcher", this::dispatch);
+        relayThread = startThread("outbox-relay", this::relay);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        relayThread.interrupt();
+        dispatcherThread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void relay() {
+        RoutingContext.setPrimaryOnly(true);
+        while (running) {
+            try {
+                List<OutboxEvent> batch = outboxRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    LockSupport.parkNanos(pollIntervalNanos);
+                    continue;
+                }
+
+                long last = -1;
+                for (OutboxEvent event : batch) {
+                    last = ringBuffer.publish(event);
+                    LockSupport.unpark(dispatcherThread);
+                }
+                ringBuffer.awaitConsumed(last);
+                outboxRepository.deleteAllByIdInBatch(batch.stream()
+                        .map(OutboxEvent::getId)
+                        .toList());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay failed, retrying", e);
+                LockSupport.parkNanos(pollIntervalNanos);
+            }
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            if (ringBuffer.drain(fanOut, batchSize) == 0) {
+                LockSupport.parkNanos(pollIntervalNanos);
+            }
+        }
+    }
+
+    private void deliver(DomainEvent event, boolean endOfBatch) {
+        for (EventConsumer consumer : consumers) {
+            try {
+                consumer.onEvent(event, endOfBatch);
+            } catch (RuntimeException e) {
+                log.warn("{} failed on {} {}", consumer.getClass().getSimpleName(), event.getType(),
+                        event.getAggregateId(), e);
+            }
+        }
+    }
+
+    private static Thread startThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
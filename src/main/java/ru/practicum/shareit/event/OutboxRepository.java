@@ -0,0 +1,11 @@
+package ru.practicum.shareit.event;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findAllByOrderByIdAsc(Limit limit);
+}
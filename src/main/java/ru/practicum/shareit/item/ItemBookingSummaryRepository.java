@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemBookingSummaryRow;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO item_booking_summary (item_id) VALUES (:idItem) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    void insertIfAbsent(long idItem);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId = :idItem")
+    Optional<ItemBookingSummary> findForUpdate(long idItem);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingSummaryRow(i.id, s.itemId, s.lastEnd, s.nextStart, " +
+            "s.rollsAt, case when exists (select o.id from OutboxEvent o where o.itemId = i.id) then true else false end) " +
+            "from Item i left join ItemBookingSummary s on s.itemId = i.id where i.id = :idItem")
+    Optional<ItemBookingSummaryRow> findRowByItemId(long idItem);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingSummaryRow(i.id, s.itemId, s.lastEnd, s.nextStart, " +
+            "s.rollsAt, case when exists (select o.id from OutboxEvent o where o.itemId = i.id) then true else false end) " +
+            "from Item i left join ItemBookingSummary s on s.itemId = i.id where i.owner.id = :idOwner")
+    List<ItemBookingSummaryRow> findRowsByOwnerId(long idOwner);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.rollsAt <= :now order by s.rollsAt")
+    List<Long> findItemIdsDueBy(LocalDateTime now, Limit limit);
+}
@@ -0,0 +1,145 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.item.dto.ItemBookingStats;
+import ru.practicum.shareit.item.dto.ItemBookingSummaryRow;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains item_booking_summary off the booking write path. Booking events recompute their items' rows after
+ * the writes commit, and a scheduled job recomputes rows whose rollsAt has passed.
+ * Reads of a row that is due, missing, or has a booking event still in the outbox fall back to the bookings,
+ * so results depend neither on the consumer nor on the job. Missing rows, e.g. of bookings loaded around the
+ * service, are created by the job; reads may run on a replica.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+public class ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int rollBatchSize;
+    private final Set<Long> pendingItems = ConcurrentHashMap.newKeySet();
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.booking-summary.roll-batch-size:500}") int rollBatchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollBatchSize = rollBatchSize;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(long idItem) {
+        summaryRepository.insertIfAbsent(idItem);
+        ItemBookingSummary summary = summaryRepository.findForUpdate(idItem)
+                .orElseThrow(() -> new IllegalStateException("No booking summary for item " + idItem));
+
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingStats stats = bookingRepository.findStatsByItemId(idItem, now);
+        summary.setLastEnd(stats.getLastEnd());
+        summary.setNextStart(stats.getNextStart());
+        summary.setRollsAt(earliest(stats.getNextStart(), stats.getNextEnd()));
+        summary.setApprovedCount(stats.getApprovedCount());
+        summary.setPendingCount(stats.getPendingCount());
+    }
+
+    /**
+     * Recomputes the rows of the given items, each in its own transaction. Items that fail are left to the job.
+     */
+    public void refreshAll(Collection<Long> itemIds) {
+        for (Long idItem : itemIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> refresh(idItem));
+            } catch (DataIntegrityViolationException ignore) {
+                // The item was deleted after it was read.
+            } catch (RuntimeException e) {
+                log.warn("Booking summary of item {} not refreshed, retrying later", idItem, e);
+                pendingItems.add(idItem);
+            }
+        }
+    }
+
+    public Optional<ItemBookingDates> findDates(long idItem, LocalDateTime now) {
+        Optional<ItemBookingSummaryRow> row = summaryRepository.findRowByItemId(idItem);
+        if (row.isPresent() && row.get().isFreshAt(now)) {
+            return Optional.of(toDates(row.get()));
+        }
+        if (row.isPresent() && row.get().getSummaryItemId() == null) {
+            pendingItems.add(idItem);
+        }
+        return bookingRepository.findBookingDatesByItemId(idItem, now);
+    }
+
+    public Map<Long, ItemBookingDates> findDatesByOwner(long idOwner, LocalDateTime now) {
+        List<ItemBookingSummaryRow> rows = summaryRepository.findRowsByOwnerId(idOwner);
+        Map<Long, ItemBookingDates> result = new HashMap<>();
+        Map<Long, ItemBookingDates> recomputed = null;
+        for (ItemBookingSummaryRow row : rows) {
+            if (row.isFreshAt(now)) {
+                result.put(row.getItemId(), toDates(row));
+                continue;
+            }
+            if (row.getSummaryItemId() == null) {
+                pendingItems.add(row.getItemId());
+            }
+            if (recomputed == null) {
+                recomputed = bookingRepository.findBookingDatesByOwnerId(idOwner, now).stream()
+                        .collect(Collectors.toMap(ItemBookingDates::getItemId, Function.identity()));
+            }
+            ItemBookingDates dates = recomputed.get(row.getItemId());
+            if (dates != null) {
+                result.put(row.getItemId(), dates);
+            }
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.roll-interval:PT1M}")
+    public void rollForward() {
+        List<Long> pending = new ArrayList<>(pendingItems);
+        pendingItems.removeAll(pending);
+        refreshAll(pending);
+
+        List<Long> due;
+        do {
+            due = summaryRepository.findItemIdsDueBy(LocalDateTime.now(), Limit.of(rollBatchSize));
+            for (Long idItem : due) {
+                transactionTemplate.executeWithoutResult(status -> refresh(idItem));
+            }
+        } while (due.size() == rollBatchSize);
+    }
+
+    private static ItemBookingDates toDates(ItemBookingSummaryRow row) {
+        return new ItemBookingDates(row.getItemId(), row.getLastEnd(), row.getNextStart());
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -1,19 +1,34 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.comment.CommentService;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.dto.CommentRequestDto;
+import ru.practicum.shareit.conditional.ResourceVersion;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
 import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.streaming.NdjsonWriter;
+import ru.practicum.shareit.user.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 /**
  * TODO Sprint add-controllers.
@@ -21,35 +36,77 @@ import java.util.List;
 @RestController
 @RequestMapping("/items")
 @AllArgsConstructor
+@Validated
 public class ItemController {
 
     private final ItemService itemService;
     private final CommentService commentService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.OK)
-    public Item addItem(@RequestBody @Valid ItemDto itemDto,
+    public ItemDtoResponse addItem(@RequestBody @Valid ItemDto itemDto,
                         @RequestHeader("X-Sharer-User-Id") long id) throws NotFoundDataException, ValidationException {
         return itemService.addItem(itemDto, id);
     }
 
+    @PostMapping(value = "/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BatchResultDto addItems(@RequestBody List<ItemDto> items,
+                                   @RequestHeader("X-Sharer-User-Id") long id) throws NotFoundDataException, ValidationException {
+        return itemService.addItems(items, id);
+    }
+
     @PatchMapping(value = "/{idItem}")
     @ResponseStatus(HttpStatus.OK)
-    public Item update(@RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long idUser,
-                       @PathVariable long idItem) throws NotFoundDataException, NotOwnerException {
+    public ItemDtoResponse update(@RequestBody ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") long idUser,
+                                  @PathVariable long idItem) throws NotFoundDataException, NotOwnerException {
         return itemService.update(itemDto, idUser, idItem);
     }
 
     @GetMapping(value = "/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public ItemDtoResponse getItemById(@PathVariable long id) throws NotFoundDataException {
-        return itemService.getItemById(id);
+    public ItemDtoResponse getItemById(@PathVariable long id,
+                                       @RequestParam(required = false) String fields,
+                                       WebRequest request) throws NotFoundDataException, ValidationException {
+        Set<ItemField> itemFields = ItemField.parse(fields, ItemField.DETAIL_DEFAULTS);
+        ResourceVersion version = itemService.getItemVersion(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return null;
+        }
+        return itemService.getItemById(id, itemFields);
     }
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<ItemDtoResponse> getUserItems(@RequestHeader ("X-Sharer-User-Id") long userId) throws NotFoundDataException {
-        return itemService.getUserItems(userId);
+    public List<ItemDtoResponse> getUserItems(@RequestHeader ("X-Sharer-User-Id") long userId,
+                                              @RequestParam(required = false) String fields)
+            throws NotFoundDataException, ValidationException {
+        return itemService.getUserItems(userId, ItemField.parse(fields, ItemField.LIST_DEFAULTS));
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonWriter.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUserItems(@RequestHeader("X-Sharer-User-Id") long userId)
+            throws NotFoundDataException {
+        if (!userService.existsById(userId)) {
+            throw new NotFoundDataException("User not found");
+        }
+
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                itemService.exportUserItems(userId, writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/{id}/availability")
+    public List<AvailabilitySlotDto> getAvailability(@PathVariable long id,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                     LocalDateTime to) throws NotFoundDataException, ValidationException {
+        return itemService.getAvailability(id, from, to);
     }
 
     @DeleteMapping(value = "/{id}")
@@ -60,16 +117,22 @@ public class ItemController {
 
     @GetMapping(value = "/search")
     @ResponseStatus(HttpStatus.OK)
-    public List<ItemDto> search(@RequestParam String text) {
-        return itemService.search(text);
+    public List<ItemDto> search(@RequestParam String text,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                LocalDateTime start,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                LocalDateTime end,
+                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                @RequestParam(defaultValue = "10") @Positive int size) throws ValidationException {
+        return itemService.search(text, start, end, from, size);
     }
 
     @PostMapping(value = "/{idItem}/comment")
     @ResponseStatus(HttpStatus.OK)
     public CommentDto postComment(@PathVariable long idItem,
-                                  @RequestBody String text,
+                                  @RequestBody @Valid CommentRequestDto commentRequestDto,
                                   @RequestHeader("X-Sharer-User-Id") long idUser) throws NotFoundDataException {
-        return commentService.postComment(idItem, idUser, text);
+        return commentService.postComment(idItem, idUser, commentRequestDto.getText());
     }
 
 
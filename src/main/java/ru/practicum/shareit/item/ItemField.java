@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.exceptions.ValidationException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional parts of an item response, selected with the fields request parameter.
+ * Parts that are not selected are neither loaded nor serialized.
+ */
+public enum ItemField {
+    OWNER,
+    BOOKINGS,
+    COMMENTS;
+
+    public static final Set<ItemField> DETAIL_DEFAULTS = Collections.unmodifiableSet(EnumSet.allOf(ItemField.class));
+    public static final Set<ItemField> LIST_DEFAULTS = Collections.unmodifiableSet(EnumSet.of(BOOKINGS));
+
+    public static Set<ItemField> parse(String fields, Set<ItemField> defaults) throws ValidationException {
+        if (fields == null) {
+            return defaults;
+        }
+
+        Set<ItemField> result = EnumSet.noneOf(ItemField.class);
+        for (String field : fields.split(",")) {
+            if (field.isBlank()) {
+                continue;
+            }
+            result.add(from(field.trim()));
+        }
+        return result;
+    }
+
+    private static ItemField from(String field) throws ValidationException {
+        for (ItemField value : values()) {
+            if (value.name().equalsIgnoreCase(field)) {
+                return value;
+            }
+        }
+        throw new ValidationException("Unknown field: " + field);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 
 public class ItemMapper {
@@ -44,7 +45,12 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(String.valueOf(item.isAvailable()))
-                .owner(item.getOwner())
                 .build();
     }
+
+    public static ItemDtoResponse toDtoResponse(Item item, User owner) {
+        ItemDtoResponse itemDto = toDtoWithBookingDates(item);
+        itemDto.setOwner(new UserShortDto(owner.getId(), owner.getName()));
+        return itemDto;
+    }
 }
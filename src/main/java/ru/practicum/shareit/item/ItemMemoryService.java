@@ -0,0 +1,165 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.conditional.ResourceVersion;
+import ru.practicum.shareit.exceptions.NotFoundDataException;
+import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserStorage;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * ItemService over {@link ItemStorage} and {@link UserStorage}, used when shareit.storage=memory.
+ * This backend keeps no bookings, comments or requests, so booking dates stay empty and every available item is free.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "memory")
+@AllArgsConstructor
+@Timed("shareit.service")
+public class ItemMemoryService implements ItemService {
+
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+    private final BatchValidator batchValidator;
+
+    @Override
+    public ItemDtoResponse addItem(ItemDto itemDto, long id) throws NotFoundDataException {
+        User owner = userStorage.getUserById(id);
+        checkNoRequest(itemDto);
+        return ItemMapper.toDtoResponse(itemStorage.addItem(itemDto, owner), owner);
+    }
+
+    @Override
+    public BatchResultDto addItems(List<ItemDto> items, long id) throws NotFoundDataException, ValidationException {
+        batchValidator.checkSize(items);
+        User owner = userStorage.getUserById(id);
+
+        BatchResultDto result = new BatchResultDto();
+        for (int i = 0; i < items.size(); i++) {
+            ItemDto itemDto = items.get(i);
+            String error = batchValidator.validate(itemDto);
+            if (error == null && itemDto.getRequest() > 0) {
+                error = "Запрос не найден";
+            }
+            if (error != null) {
+                result.addError(i, error);
+                continue;
+            }
+            result.addCreated(i, itemStorage.addItem(itemDto, owner).getId());
+        }
+        return result;
+    }
+
+    @Override
+    public ItemDtoResponse update(ItemDto itemDto, long userId, long itemId) throws NotFoundDataException, NotOwnerException {
+        if (itemStorage.getItemById(itemId).getOwner().getId() != userId) {
+            throw new NotOwnerException("Not owner of item");
+        }
+        return ItemMapper.toDtoResponse(itemStorage.updateItem(itemId, itemDto), userStorage.getUserById(userId));
+    }
+
+    @Override
+    public ItemDtoResponse getItemById(long id, Set<ItemField> fields) throws NotFoundDataException {
+        return toResponse(itemStorage.getItemById(id), fields);
+    }
+
+    @Override
+    public ResourceVersion getItemVersion(long id) throws NotFoundDataException {
+        Item item = itemStorage.getItemById(id);
+        return ResourceVersion.of(item.getName(), item.getDescription(), item.isAvailable(),
+                userStorage.getUserById(item.getOwner().getId()).getName());
+    }
+
+    @Override
+    public List<ItemDtoResponse> getUserItems(long userId, Set<ItemField> fields) throws NotFoundDataException {
+        userStorage.getUserById(userId);
+
+        List<ItemDtoResponse> result = new ArrayList<>();
+        for (Item item : sortedUserItems(userId)) {
+            result.add(toResponse(item, fields));
+        }
+        return result;
+    }
+
+    @Override
+    public void exportUserItems(long userId, Consumer<ItemSummaryDto> consumer) {
+        sortedUserItems(userId).forEach(item -> consumer.accept(new ItemSummaryDto(item.getId(), item.getName(),
+                item.getDescription(), item.isAvailable(), null, null)));
+    }
+
+    @Override
+    public List<ItemDto> search(String searchString, LocalDateTime start, LocalDateTime end, int from, int size)
+            throws ValidationException {
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("start and end must be given together");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("start must be before end");
+        }
+        if (searchString.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        return itemStorage.search(searchString.trim()).stream()
+                .skip(from)
+                .limit(size)
+                .toList();
+    }
+
+    @Override
+    public List<AvailabilitySlotDto> getAvailability(long id, LocalDateTime from, LocalDateTime to)
+            throws NotFoundDataException, ValidationException {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("from must be before to");
+        }
+        if (!itemStorage.getItemById(id).isAvailable()) {
+            return Collections.emptyList();
+        }
+        return List.of(new AvailabilitySlotDto(from, to));
+    }
+
+    @Override
+    public void delete(long id) throws NotFoundDataException {
+        itemStorage.deleteItem(id);
+    }
+
+    private ItemDtoResponse toResponse(Item item, Set<ItemField> fields) throws NotFoundDataException {
+        ItemDtoResponse result = fields.contains(ItemField.OWNER)
+                ? ItemMapper.toDtoResponse(item, userStorage.getUserById(item.getOwner().getId()))
+                : ItemMapper.toDtoWithBookingDates(item);
+        if (fields.contains(ItemField.COMMENTS)) {
+            result.setComments(Collections.emptyList());
+        }
+        return result;
+    }
+
+    private List<Item> sortedUserItems(long userId) {
+        return itemStorage.getUserItems(userId).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+    }
+
+    private static void checkNoRequest(ItemDto itemDto) throws NotFoundDataException {
+        if (itemDto.getRequest() > 0) {
+            throw new NotFoundDataException("Запрос не найден");
+        }
+    }
+}
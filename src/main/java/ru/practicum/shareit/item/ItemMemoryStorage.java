@@ -1,108 +1,126 @@
 package ru.practicum.shareit.item;
 
-import lombok.AllArgsConstructor;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemTokenIndex;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-
-@RestController
-@AllArgsConstructor
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Items are kept as copies and replaced under the per-key lock of the map, the owner and token indexes
+ * are maintained in the same critical section.
+ */
+@Repository
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "memory")
 public class ItemMemoryStorage implements ItemStorage {
 
-    private final Map<Long, Item> items;
+    private static final int SEARCH_LIMIT = 1000;
+
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> itemsByOwner = new ConcurrentHashMap<>();
+    private final ItemTokenIndex tokenIndex = new ItemTokenIndex();
+    private final AtomicLong ids = new AtomicLong();
 
     @Override
-    public Item addItem(ItemDto itemDto, User user) throws NotFoundDataException {
-        long id = generateId();
-        id++;
+    public Item addItem(ItemDto itemDto, User user) {
         Item newItem = ItemMapper.fromDto(itemDto, user);
-        items.put(newItem.getId(), newItem);
-        return getItemById(newItem.getId());
+        newItem.setId(ids.incrementAndGet());
+
+        items.compute(newItem.getId(), (id, ignore) -> {
+            itemsByOwner.computeIfAbsent(user.getId(), key -> ConcurrentHashMap.newKeySet()).add(id);
+            tokenIndex.add(newItem);
+            return newItem;
+        });
+        return copy(newItem);
     }
 
     @Override
     public Item updateItem(long itemId, ItemDto itemDto) throws NotFoundDataException {
-        if (items.containsKey(itemId)) {
-            Item oldItem = items.get(itemId);
+        Item updated = items.computeIfPresent(itemId, (id, oldItem) -> {
+            Item newItem = copy(oldItem);
             if (itemDto.getName() != null) {
-                oldItem.setName(itemDto.getName());
-                items.put(oldItem.getId(), oldItem);
+                newItem.setName(itemDto.getName());
             }
             if (itemDto.getDescription() != null) {
-                oldItem.setDescription(itemDto.getDescription());
-                items.put(oldItem.getId(), oldItem);
+                newItem.setDescription(itemDto.getDescription());
             }
             if (itemDto.getAvailable() != null) {
-                oldItem.setAvailable(Boolean.parseBoolean(itemDto.getAvailable()));
-                items.put(oldItem.getId(), oldItem);
+                newItem.setAvailable(Boolean.parseBoolean(itemDto.getAvailable()));
             }
-        } else {
+            tokenIndex.add(newItem);
+            return newItem;
+        });
+
+        if (updated == null) {
             throw new NotFoundDataException("Вещь не найдена");
         }
-        return getItemById(itemId);
+        return copy(updated);
     }
 
     @Override
     public Item getItemById(long id) throws NotFoundDataException {
-        return items.values().stream()
-                .filter(i -> i.getId() == id)
-                .findFirst()
-                .orElseThrow(() -> new NotFoundDataException("Вещь не найдена"));
+        Item item = items.get(id);
+        if (item == null) {
+            throw new NotFoundDataException("Вещь не найдена");
+        }
+        return copy(item);
     }
 
     @Override
     public List<Item> getUserItems(long userId) {
-        return items.values().stream()
-                .filter(i -> i.getOwner().getId() == userId)
-                .collect(Collectors.toList());
+        Set<Long> itemIds = itemsByOwner.getOrDefault(userId, Collections.emptySet());
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(ItemMemoryStorage::copy)
+                .toList();
     }
 
     @Override
     public void deleteItem(long id) throws NotFoundDataException {
-        if (items.containsKey(id)) {
-            items.remove(id);
-        } else {
+        boolean[] removed = new boolean[1];
+        items.computeIfPresent(id, (key, item) -> {
+            itemsByOwner.computeIfPresent(item.getOwner().getId(), (owner, itemIds) -> {
+                itemIds.remove(id);
+                return itemIds.isEmpty() ? null : itemIds;
+            });
+            tokenIndex.remove(id);
+            removed[0] = true;
+            return null;
+        });
+
+        if (!removed[0]) {
             throw new NotFoundDataException("Вещь не найдена");
         }
     }
 
     @Override
     public List<ItemDto> search(String searchString) {
-
-        List<ItemDto> result = new ArrayList<>();
-
-        List<ItemDto> byName = items.values().stream()
-                .filter(i -> i.getName().toLowerCase().equals(searchString))
-                .filter(Item::isAvailable)
+        return tokenIndex.search(searchString, 0, SEARCH_LIMIT).stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .map(ItemMapper::toDto)
                 .toList();
-
-        List<ItemDto> byDescription = items.values().stream()
-                .filter(i -> i.getDescription().toLowerCase().equals(searchString))
-                .filter(Item::isAvailable)
-                .map(ItemMapper::toDto)
-                .toList();
-
-        if (!byName.isEmpty()) {
-            result.addAll(byName);
-        }
-        if (!byDescription.isEmpty()) {
-            result.addAll(byDescription);
-        }
-
-        return result;
     }
 
-    private long generateId() {
-        return items.keySet().stream()
-                .max((id1, id2) -> Math.toIntExact(id2 - id1))
-                .orElse(1L);
+    private static Item copy(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.isAvailable())
+                .owner(item.getOwner())
+                .request(item.getRequest())
+                .build();
     }
 }
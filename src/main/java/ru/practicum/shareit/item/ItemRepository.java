@@ -1,15 +1,91 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwner_id(long id);
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long id);
 
-    @Query(value = "SELECT DISTINCT * FROM ITEMS " +
-            "WHERE UPPER(name) LIKE %:searchString% OR UPPER(description) LIKE %:searchString%", nativeQuery = true)
-    List<Item> search(String searchString);
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findWithoutOwnerById(long id);
+
+    List<Item> findByOwner_IdOrderById(long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.item.dto.ItemSummaryDto(i.id, i.name, i.description, i.available, " +
+            "(select max(b.end) from Booking b where b.item = i and b.end < :now " +
+            "and b.status not in (ru.practicum.shareit.booking.BookingStatus.REJECTED, " +
+            "ru.practicum.shareit.booking.BookingStatus.CANCELED)), " +
+            "(select min(b.start) from Booking b where b.item = i and b.start > :now " +
+            "and b.status not in (ru.practicum.shareit.booking.BookingStatus.REJECTED, " +
+            "ru.practicum.shareit.booking.BookingStatus.CANCELED))) " +
+            "from Item i where i.owner.id = :idOwner order by i.id")
+    Stream<ItemSummaryDto> streamSummariesByOwnerId(long idOwner, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemVersionDto(i.updatedAt, " +
+            "(select u.updatedAt from User u where u = i.owner), " +
+            "(select max(b.updatedAt) from Booking b where b.item = i), " +
+            "(select count(b) from Booking b where b.item = i), " +
+            "(select max(c.updatedAt) from Comment c where c.item = i), " +
+            "(select count(c) from Comment c where c.item = i), " +
+            "(select max(c.author.updatedAt) from Comment c where c.item = i), " +
+            "(select max(b.start) from Booking b where b.item = i and b.start <= :now " +
+            "and b.status not in (ru.practicum.shareit.booking.BookingStatus.REJECTED, " +
+            "ru.practicum.shareit.booking.BookingStatus.CANCELED)), " +
+            "(select max(b.end) from Booking b where b.item = i and b.end < :now " +
+            "and b.status not in (ru.practicum.shareit.booking.BookingStatus.REJECTED, " +
+            "ru.practicum.shareit.booking.BookingStatus.CANCELED))) " +
+            "from Item i where i.id = :idItem")
+    Optional<ItemVersionDto> findVersionById(long idItem, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.request.id) " +
+            "from Item i where i.request.id in :requestIds")
+    List<ItemAnswerDto> findAnswersByRequestIds(Collection<Long> requestIds);
+
+    @Query(value = "SELECT i.id, i.name, i.description, i.is_available, i.owner_id, i.request_id, i.updated_at " +
+            "FROM items i, plainto_tsquery('simple', :text) q " +
+            "WHERE i.is_available AND (i.search_vector @@ q " +
+            "OR (coalesce(i.name, '') || ' ' || coalesce(i.description, '')) ILIKE :pattern) " +
+            "ORDER BY ts_rank(i.search_vector, q) " +
+            "+ word_similarity(:text, coalesce(i.name, '') || ' ' || coalesce(i.description, '')) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> search(String text, String pattern, int from, int size);
+
+    // The NOT EXISTS probe is served by the GiST index behind ex_bookings_item_period.
+    @Query(value = "SELECT i.id, i.name, i.description, i.is_available, i.owner_id, i.request_id, i.updated_at " +
+            "FROM items i, plainto_tsquery('simple', :text) q " +
+            "WHERE i.is_available AND (i.search_vector @@ q " +
+            "OR (coalesce(i.name, '') || ' ' || coalesce(i.description, '')) ILIKE :pattern) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id " +
+            "AND b.status IN ('WAITING', 'APPROVED') " +
+            "AND tsrange(b.start_date, b.end_date) && tsrange(CAST(:start AS TIMESTAMP), CAST(:end AS TIMESTAMP))) " +
+            "ORDER BY ts_rank(i.search_vector, q) " +
+            "+ word_similarity(:text, coalesce(i.name, '') || ' ' || coalesce(i.description, '')) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> searchFree(String text, String pattern, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    @Transactional
+    @Query(value = "UPDATE items SET name = COALESCE(CAST(:name AS VARCHAR), name), " +
+            "description = COALESCE(CAST(:description AS VARCHAR), description), " +
+            "is_available = COALESCE(CAST(:available AS BOOLEAN), is_available), updated_at = LOCALTIMESTAMP " +
+            "WHERE id = :idItem AND owner_id = :idOwner " +
+            "RETURNING id, name, description, is_available, owner_id, request_id, updated_at", nativeQuery = true)
+    Optional<Item> updateOwned(long idItem, long idOwner, String name, String description, Boolean available);
 }
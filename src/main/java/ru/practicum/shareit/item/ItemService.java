@@ -1,24 +1,41 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.conditional.ResourceVersion;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
-    Item addItem(ItemDto item, long id) throws NotFoundDataException;
+    ItemDtoResponse addItem(ItemDto item, long id) throws NotFoundDataException;
 
-    Item update(ItemDto itemDto, long userId, long itemId) throws NotFoundDataException, NotOwnerException;
+    BatchResultDto addItems(List<ItemDto> items, long id) throws NotFoundDataException, ValidationException;
 
-    ItemDtoResponse getItemById(long id) throws NotFoundDataException;
+    ItemDtoResponse update(ItemDto itemDto, long userId, long itemId) throws NotFoundDataException, NotOwnerException;
 
-    List<ItemDtoResponse> getUserItems(long userId) throws NotFoundDataException;
+    ItemDtoResponse getItemById(long id, Set<ItemField> fields) throws NotFoundDataException;
 
-    List<ItemDto> search(String searchString);
+    ResourceVersion getItemVersion(long id) throws NotFoundDataException;
+
+    List<ItemDtoResponse> getUserItems(long userId, Set<ItemField> fields) throws NotFoundDataException;
+
+    void exportUserItems(long userId, Consumer<ItemSummaryDto> consumer);
+
+    List<ItemDto> search(String searchString, LocalDateTime start, LocalDateTime end, int from, int size)
+            throws ValidationException;
+
+    List<AvailabilitySlotDto> getAvailability(long id, LocalDateTime from, LocalDateTime to)
+            throws NotFoundDataException, ValidationException;
 
     void delete(long id) throws NotFoundDataException;
 }
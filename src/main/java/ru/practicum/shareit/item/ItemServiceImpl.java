@@ -1,182 +1,310 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingDtoResponse;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.ItemAvailabilityIndex;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.concurrency.FanOutExecutor;
+import ru.practicum.shareit.conditional.ResourceVersion;
+import ru.practicum.shareit.event.EventType;
+import ru.practicum.shareit.event.OutboxPublisher;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.ItemSummaryDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
 @AllArgsConstructor
+@Timed("shareit.service")
 public class ItemServiceImpl implements ItemService {
 
     private final UserService userService;
     private final ItemRepository itemRepository;
-    private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BatchValidator batchValidator;
+    private final FanOutExecutor fanOutExecutor;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final OutboxPublisher outboxPublisher;
+    private final ItemBookingSummaryService bookingSummaryService;
 
     @Override
-    public Item addItem(ItemDto itemDto, long id) throws NotFoundDataException {
-        Item item = ItemMapper.fromDto(itemDto, userService.getUserById(id));
-        return itemRepository.save(item);
+    @CacheEvict(cacheNames = CacheConfig.REQUEST_FEED, allEntries = true, condition = "#itemDto.request > 0")
+    public ItemDtoResponse addItem(ItemDto itemDto, long id) throws NotFoundDataException {
+        User owner = userService.getUserById(id);
+        Item newItem = ItemMapper.fromDto(itemDto, owner);
+        if (itemDto.getRequest() > 0) {
+            Optional<ItemRequest> itemRequest = itemRequestRepository.findById(itemDto.getRequest());
+            if (itemRequest.isEmpty()) {
+                throw new NotFoundDataException("Запрос не найден");
+            }
+            newItem.setRequest(itemRequest.get());
+        }
+
+        Item item = itemRepository.save(newItem);
+        itemSearchEngine.index(item);
+        return ItemMapper.toDtoResponse(item, owner);
     }
 
     @Override
-    public Item update(ItemDto itemDto, long userId, long itemId) throws NotFoundDataException, NotOwnerException {
-        if (!ownerCheck(userId, itemId)) {
-            throw new NotOwnerException("Not owner of item");
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.REQUEST_FEED, allEntries = true,
+            condition = "#items.?[#this != null and request > 0].size() > 0")
+    public BatchResultDto addItems(List<ItemDto> items, long id) throws NotFoundDataException, ValidationException {
+        batchValidator.checkSize(items);
+        User owner = userService.getUserById(id);
+
+        Set<Long> requestIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequest)
+                .filter(request -> request > 0)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        if (!requestIds.isEmpty()) {
+            itemRequestRepository.findAllById(requestIds).forEach(request -> requests.put(request.getId(), request));
         }
 
-        User user = userService.getUserById(userId);
-        Item newItem = ItemMapper.fromDto(itemDto, user);
-        Optional<Item> oldItemOptional = itemRepository.findById(itemId);
-        if (oldItemOptional.isEmpty()) {
-            throw new NotFoundDataException("Item not found");
-        }
-        Item oldItem = oldItemOptional.get();
-        if (newItem.getName() == null) {
-            newItem.setName(oldItem.getName());
-        }
-        if (newItem.getDescription() == null) {
-            newItem.setDescription(oldItem.getDescription());
+        BatchResultDto result = new BatchResultDto();
+        List<Integer> rows = new ArrayList<>();
+        List<Item> newItems = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ItemDto itemDto = items.get(i);
+            String error = batchValidator.validate(itemDto);
+            if (error == null && itemDto.getRequest() > 0 && !requests.containsKey(itemDto.getRequest())) {
+                error = "Запрос не найден";
+            }
+            if (error != null) {
+                result.addError(i, error);
+                continue;
+            }
+            Item item = ItemMapper.fromDto(itemDto, owner);
+            item.setRequest(requests.get(itemDto.getRequest()));
+            rows.add(i);
+            newItems.add(item);
         }
-        if (itemDto.getAvailable() == null) {
-            newItem.setAvailable(oldItem.isAvailable());
+
+        List<Item> savedItems = itemRepository.saveAll(newItems);
+        for (int i = 0; i < savedItems.size(); i++) {
+            itemSearchEngine.index(savedItems.get(i));
+            result.addCreated(rows.get(i), savedItems.get(i).getId());
         }
+        return result;
+    }
 
-        newItem.setId(itemId);
+    @Override
+    @Transactional
+    public ItemDtoResponse update(ItemDto itemDto, long userId, long itemId) throws NotFoundDataException, NotOwnerException {
+        Boolean available = itemDto.getAvailable() == null ? null : Boolean.parseBoolean(itemDto.getAvailable());
+        Optional<Item> updated = itemRepository.updateOwned(itemId, userId, itemDto.getName(),
+                itemDto.getDescription(), available);
+        if (updated.isEmpty()) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new NotFoundDataException("Item not found");
+            }
+            throw new NotOwnerException("Not owner of item");
+        }
 
-        return itemRepository.save(newItem);
+        Item item = updated.get();
+        itemSearchEngine.index(item);
+        outboxPublisher.publish(EventType.ITEM_UPDATED, itemId, itemId, userId, answeredRequest(item));
+        return ItemMapper.toDtoResponse(item, userService.getUserById(userId));
     }
 
+    // No surrounding transaction: a caller holding a connection while it waits on fan-out reads could starve the pool.
     @Override
-    public ItemDtoResponse getItemById(long id) throws NotFoundDataException {
-        Optional<Item> itemOptional = itemRepository.findById(id);
+    public ItemDtoResponse getItemById(long id, Set<ItemField> fields) throws NotFoundDataException {
+        LocalDateTime now = LocalDateTime.now();
+        CompletableFuture<Optional<Item>> itemFuture = fanOutExecutor.supplyReadOnly(() ->
+                fields.contains(ItemField.OWNER) ? itemRepository.findById(id) : itemRepository.findWithoutOwnerById(id));
+        CompletableFuture<Optional<ItemBookingDates>> datesFuture = fields.contains(ItemField.BOOKINGS)
+                ? fanOutExecutor.supplyReadOnly(() -> bookingSummaryService.findDates(id, now)) : null;
+        CompletableFuture<List<CommentDto>> commentsFuture = fields.contains(ItemField.COMMENTS)
+                ? fanOutExecutor.supplyReadOnly(() -> commentRepository.findByItem_id(id).stream()
+                        .map(CommentMapper::toDto)
+                        .toList())
+                : null;
+
+        Optional<Item> itemOptional = FanOutExecutor.join(itemFuture);
         if (itemOptional.isEmpty()) {
             throw new NotFoundDataException("Item not found");
         }
 
-        ItemDtoResponse result = ItemMapper.toDtoWithBookingDates(itemOptional.get());
-        List<BookingDtoResponse> bookingList = bookingRepository.findByItem_id(id).stream()
-                .map(BookingMapper::toDtoResponse)
-                .toList();
-        Map<String, LocalDateTime> dateTimeMap = new HashMap<>();
-        if (!bookingList.isEmpty()) {
-            if (bookingList.size() == 1) {
-                dateTimeMap.put("Past", null);
-                dateTimeMap.put("Next", null);
-            } else {
-                dateTimeMap = getLastAndEndDate(bookingList, itemOptional.get().getId());
-            }
-        } else {
-            dateTimeMap.put("Past", null);
-            dateTimeMap.put("Next", null);
+        Item item = itemOptional.get();
+        ItemDtoResponse result = fields.contains(ItemField.OWNER)
+                ? ItemMapper.toDtoResponse(item, item.getOwner()) : ItemMapper.toDtoWithBookingDates(item);
+        if (datesFuture != null) {
+            FanOutExecutor.join(datesFuture).ifPresent(dates -> setBookingDates(result, dates));
+        }
+        if (commentsFuture != null) {
+            result.setComments(FanOutExecutor.join(commentsFuture));
         }
-
-        List<CommentDto> commentList = commentRepository.findByItem_id(id).stream()
-                .map(CommentMapper::toDto)
-                .toList();
-
-        result.setLastBooking(dateTimeMap.get("Past"));
-        result.setNextBooking(dateTimeMap.get("Next"));
-        result.setComments(commentList);
 
         return result;
     }
 
     @Override
-    public List<ItemDtoResponse> getUserItems(long userId) throws NotFoundDataException {
-        if (userService.getUserById(userId) == null) {
-            throw new NotFoundDataException("User not found");
+    @Transactional(readOnly = true)
+    public ResourceVersion getItemVersion(long id) throws NotFoundDataException {
+        Optional<ItemVersionDto> version = itemRepository.findVersionById(id, LocalDateTime.now());
+        if (version.isEmpty()) {
+            throw new NotFoundDataException("Item not found");
         }
 
-        List<BookingDtoResponse> bookingList = bookingRepository.getBookingsByOwnerId(userId).stream()
-                .map(BookingMapper::toDtoResponse)
-                .sorted(Comparator.comparing(BookingDtoResponse::getStart))
-                .toList();
-
-        List<ItemDtoResponse> temp = itemRepository.findByOwner_id(userId).stream()
-                .map(ItemMapper::toDtoWithBookingDates)
-                .toList();
-
-        Map<Long, ItemDtoResponse> itemMap = new HashMap<>();
+        ItemVersionDto itemVersion = version.get();
+        return ResourceVersion.of(itemVersion.getItemUpdatedAt(), itemVersion.getOwnerUpdatedAt(),
+                itemVersion.getBookingsUpdatedAt(), itemVersion.getBookings(), itemVersion.getCommentsUpdatedAt(),
+                itemVersion.getComments(), itemVersion.getAuthorsUpdatedAt(), itemVersion.getPassedStart(),
+                itemVersion.getPassedEnd());
+    }
 
-        for (ItemDtoResponse item : temp) {
-            itemMap.put(item.getId(), item);
+    // No surrounding transaction, see getItemById. The user lookups return their connection before any task is awaited.
+    @Override
+    public List<ItemDtoResponse> getUserItems(long userId, Set<ItemField> fields) throws NotFoundDataException {
+        if (!userService.existsById(userId)) {
+            throw new NotFoundDataException("User not found");
         }
 
-        for (BookingDtoResponse booking : bookingList) {
-            if (itemMap.containsKey(booking.getItem().getId())) {
-                Map<String, LocalDateTime> dateTimeMap = getLastAndEndDate(bookingList, booking.getItem().getId());
-                itemMap.get(booking.getItem().getId()).setNextBooking(dateTimeMap.get("Next"));
-                itemMap.get(booking.getItem().getId()).setLastBooking(dateTimeMap.get("Past"));
+        LocalDateTime now = LocalDateTime.now();
+        CompletableFuture<List<Item>> itemsFuture =
+                fanOutExecutor.supplyReadOnly(() -> itemRepository.findByOwner_IdOrderById(userId));
+        CompletableFuture<Map<Long, ItemBookingDates>> datesFuture = fields.contains(ItemField.BOOKINGS)
+                ? fanOutExecutor.supplyReadOnly(() -> bookingSummaryService.findDatesByOwner(userId, now))
+                : CompletableFuture.completedFuture(Collections.emptyMap());
+        User owner = fields.contains(ItemField.OWNER) ? userService.getUserById(userId) : null;
+
+        List<Item> items = FanOutExecutor.join(itemsFuture);
+        Map<Long, List<CommentDto>> commentsByItem = fields.contains(ItemField.COMMENTS)
+                ? FanOutExecutor.join(fanOutExecutor.supplyReadOnly(() -> findComments(items))) : null;
+        Map<Long, ItemBookingDates> datesByItem = FanOutExecutor.join(datesFuture);
+
+        List<ItemDtoResponse> result = new ArrayList<>();
+        for (Item item : items) {
+            ItemDtoResponse itemDto = owner != null
+                    ? ItemMapper.toDtoResponse(item, owner) : ItemMapper.toDtoWithBookingDates(item);
+            ItemBookingDates dates = datesByItem.get(item.getId());
+            if (dates != null) {
+                setBookingDates(itemDto, dates);
+            }
+            if (commentsByItem != null) {
+                itemDto.setComments(commentsByItem.getOrDefault(item.getId(), Collections.emptyList()));
             }
+            result.add(itemDto);
         }
 
-        return new ArrayList<>(itemMap.values());
+        return result;
     }
 
     @Override
-    public List<ItemDto> search(String searchString) {
-        List<ItemDto> result = new ArrayList<>();
-        if (searchString.equalsIgnoreCase("")) {
-            return result;
+    @Transactional(readOnly = true)
+    public void exportUserItems(long userId, Consumer<ItemSummaryDto> consumer) {
+        try (Stream<ItemSummaryDto> items = itemRepository.streamSummariesByOwnerId(userId, LocalDateTime.now())) {
+            items.forEach(consumer);
         }
+    }
 
-        return itemRepository.search(searchString).stream()
-                .filter(Item::isAvailable)
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> search(String searchString, LocalDateTime start, LocalDateTime end, int from, int size)
+            throws ValidationException {
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("start and end must be given together");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new ValidationException("start must be before end");
+        }
+        if (searchString.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        List<Item> items = start == null ? itemSearchEngine.search(searchString.trim(), from, size)
+                : itemSearchEngine.searchFree(searchString.trim(), start, end, from, size);
+        return items.stream()
                 .map(ItemMapper::toDto)
                 .toList();
     }
 
+    // Not read-only: a calendar loaded from a lagging replica would stay stale until it expires.
     @Override
-    public void delete(long id) throws NotFoundDataException {
-        itemRepository.deleteById(id);
-    }
-
-    private boolean ownerCheck(long userId, long itemId) throws NotFoundDataException {
-        Optional<Item> itemOptional = itemRepository.findById(itemId);
-        if (itemOptional.isEmpty()) {
+    public List<AvailabilitySlotDto> getAvailability(long id, LocalDateTime from, LocalDateTime to)
+            throws NotFoundDataException, ValidationException {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("from must be before to");
+        }
+        Optional<Item> item = itemRepository.findWithoutOwnerById(id);
+        if (item.isEmpty()) {
             throw new NotFoundDataException("Item not found");
         }
+        if (!item.get().isAvailable()) {
+            return Collections.emptyList();
+        }
 
-        Item item = itemOptional.get();
-        return item.getOwner().getId() == userId;
+        return availabilityIndex.freeSlots(id, from, to);
     }
 
-    private Map<String, LocalDateTime> getLastAndEndDate(List<BookingDtoResponse> bookingList, long idItems) {
-        BookingDtoResponse bookingNext = bookingList.stream()
-                .filter(bookingDtoResponse -> bookingDtoResponse.getItem().getId() == idItems)
-                .filter(bookingDtoResponse -> bookingDtoResponse.getStart().isAfter(LocalDateTime.now()))
-                .findFirst()
-                .get();
-
-        BookingDtoResponse bookingPast = bookingList.stream()
-                .filter(bookingDtoResponse -> bookingDtoResponse.getItem().getId() == idItems)
-                .filter(bookingDtoResponse -> bookingDtoResponse.getEnd().isBefore(LocalDateTime.now()))
-                .filter(bookingDtoResponse -> bookingDtoResponse.getId() != bookingNext.getId())
-                .max(Comparator.comparing(BookingDtoResponse::getEnd))
-                .get();
+    @Override
+    @Transactional
+    public void delete(long id) throws NotFoundDataException {
+        Optional<Item> item = itemRepository.findById(id);
+        if (item.isEmpty()) {
+            return;
+        }
 
-        Map<String, LocalDateTime> result = new HashMap<>();
-        result.put("Next", bookingNext.getStart());
-        result.put("Past", bookingPast.getEnd());
+        itemRepository.delete(item.get());
+        itemSearchEngine.remove(id);
+        availabilityIndex.invalidate(id);
+        outboxPublisher.publish(EventType.ITEM_DELETED, id, id, item.get().getOwner().getId(),
+                answeredRequest(item.get()));
+    }
 
-        return result;
+    // Item events carry the request an item answers, so the request feed that lists the answer can be evicted.
+    private static String answeredRequest(Item item) {
+        return item.getRequest() == null ? null : String.valueOf(item.getRequest().getId());
     }
 
+    private Map<Long, List<CommentDto>> findComments(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyMap();
+        }
 
+        List<Long> ids = items.stream()
+                .map(Item::getId)
+                .toList();
+        return commentRepository.findByItem_IdIn(ids).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+    }
+
+    private void setBookingDates(ItemDtoResponse itemDto, ItemBookingDates dates) {
+        itemDto.setLastBooking(dates.getLastBooking());
+        itemDto.setNextBooking(dates.getNextBooking());
+    }
 }
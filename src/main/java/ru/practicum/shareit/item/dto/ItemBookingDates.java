@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemBookingDates {
+    private long itemId;
+    private LocalDateTime lastBooking;
+    private LocalDateTime nextBooking;
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemBookingStats {
+    private LocalDateTime lastEnd;
+    private LocalDateTime nextStart;
+    private LocalDateTime nextEnd;
+    private long approvedCount;
+    private long pendingCount;
+}
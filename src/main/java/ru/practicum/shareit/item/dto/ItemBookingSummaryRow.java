@@ -0,0 +1,25 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An item with its booking summary, summaryItemId is null while the item has no summary row yet.
+ * pending is set while a booking event of the item is still in the outbox, i.e. not yet applied to the row.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemBookingSummaryRow {
+    private long itemId;
+    private Long summaryItemId;
+    private LocalDateTime lastEnd;
+    private LocalDateTime nextStart;
+    private LocalDateTime rollsAt;
+    private boolean pending;
+
+    public boolean isFreshAt(LocalDateTime now) {
+        return summaryItemId != null && !pending && (rollsAt == null || now.isBefore(rollsAt));
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -7,7 +8,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import ru.practicum.shareit.comment.dto.CommentDto;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,9 +26,11 @@ public class ItemDtoResponse {
     private String description;
     @NotBlank
     private String available;
-    private User owner;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserShortDto owner;
     private LocalDateTime lastBooking;
     private LocalDateTime nextBooking;
     @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<CommentDto> comments;
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemSummaryDto {
+
+    private long id;
+    private String name;
+    private String description;
+    private boolean available;
+    private LocalDateTime lastBooking;
+    private LocalDateTime nextBooking;
+}
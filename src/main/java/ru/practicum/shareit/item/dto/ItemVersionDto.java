@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Everything the item detail representation depends on: row changes of the item, its owner, its bookings and
+ * comments and their authors, and the latest booking start and end that have already passed, which move the
+ * last and next booking dates.
+ */
+@Getter
+@AllArgsConstructor
+public class ItemVersionDto {
+
+    private LocalDateTime itemUpdatedAt;
+    private LocalDateTime ownerUpdatedAt;
+    private LocalDateTime bookingsUpdatedAt;
+    private Long bookings;
+    private LocalDateTime commentsUpdatedAt;
+    private Long comments;
+    private LocalDateTime authorsUpdatedAt;
+    private LocalDateTime passedStart;
+    private LocalDateTime passedEnd;
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an item's bookings. rollsAt is the first moment lastEnd or nextStart
+ * would change only because time has passed; the row is exact before it.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Column(name = "rolls_at")
+    private LocalDateTime rollsAt;
+    @Column(name = "approved_count")
+    private long approvedCount;
+    @Column(name = "pending_count")
+    private long pendingCount;
+}
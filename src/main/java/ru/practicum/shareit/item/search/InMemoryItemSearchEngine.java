@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Token index search for databases without full-text support (H2).
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemTokenIndex tokenIndex = new ItemTokenIndex();
+    private volatile boolean loaded;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository, BookingRepository bookingRepository) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        loadIfNeeded();
+        return load(tokenIndex.search(text, from, size));
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        loadIfNeeded();
+
+        List<Long> matches = tokenIndex.search(text, 0, Integer.MAX_VALUE);
+        if (matches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> busy = new HashSet<>(bookingRepository.findBusyItemIds(matches, ACTIVE_STATUSES, start, end));
+        return load(matches.stream()
+                .filter(id -> !busy.contains(id))
+                .skip(from)
+                .limit(size)
+                .toList());
+    }
+
+    private List<Item> load(List<Long> page) {
+        if (page.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Item> itemsById = itemRepository.findAllById(page).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return page.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    public void index(Item item) {
+        loadIfNeeded();
+        tokenIndex.add(item);
+    }
+
+    @Override
+    public void remove(long idItem) {
+        tokenIndex.remove(idItem);
+    }
+
+    private void loadIfNeeded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                itemRepository.findAll().forEach(tokenIndex::add);
+                loaded = true;
+            }
+        }
+    }
+}
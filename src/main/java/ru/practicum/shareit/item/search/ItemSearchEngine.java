@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, int from, int size);
+
+    /**
+     * Like search, but leaves out items with a WAITING or APPROVED booking overlapping [start, end).
+     */
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    default void index(Item item) {
+    }
+
+    default void remove(long idItem) {
+    }
+}
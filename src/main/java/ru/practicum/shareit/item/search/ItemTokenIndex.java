@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index over available items.
+ * Query tokens match indexed tokens by prefix, all query tokens must match, name hits rank higher.
+ */
+public class ItemTokenIndex {
+
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> tokenIndex = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedItem> indexedItems = new ConcurrentHashMap<>();
+
+    public List<Long> search(String text, int from, int size) {
+        Set<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<Long, Integer> tokenScores = scoreToken(queryToken);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip(from)
+                .limit(size)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public void add(Item item) {
+        remove(item.getId());
+        if (!item.isAvailable()) {
+            return;
+        }
+
+        IndexedItem indexedItem = new IndexedItem(tokenize(item.getName()), tokenize(item.getDescription()));
+        indexedItems.put(item.getId(), indexedItem);
+        for (String token : indexedItem.tokens()) {
+            tokenIndex.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(item.getId());
+        }
+    }
+
+    public void remove(long idItem) {
+        IndexedItem indexedItem = indexedItems.remove(idItem);
+        if (indexedItem == null) {
+            return;
+        }
+        for (String token : indexedItem.tokens()) {
+            tokenIndex.computeIfPresent(token, (key, ids) -> {
+                ids.remove(idItem);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private Map<Long, Integer> scoreToken(String queryToken) {
+        Map<Long, Integer> result = new HashMap<>();
+        for (Map.Entry<String, Set<Long>> entry : tokenIndex.subMap(queryToken, true,
+                queryToken + Character.MAX_VALUE, false).entrySet()) {
+            for (Long idItem : entry.getValue()) {
+                IndexedItem indexedItem = indexedItems.get(idItem);
+                if (indexedItem == null) {
+                    continue;
+                }
+                int weight = indexedItem.nameTokens.contains(entry.getKey()) ? NAME_WEIGHT : DESCRIPTION_WEIGHT;
+                result.merge(idItem, weight, Math::max);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static class IndexedItem {
+        private final Set<String> nameTokens;
+        private final Set<String> descriptionTokens;
+
+        IndexedItem(Set<String> nameTokens, Set<String> descriptionTokens) {
+            this.nameTokens = nameTokens;
+            this.descriptionTokens = descriptionTokens;
+        }
+
+        Set<String> tokens() {
+            Set<String> tokens = new HashSet<>(nameTokens);
+            tokens.addAll(descriptionTokens);
+            return tokens;
+        }
+    }
+}
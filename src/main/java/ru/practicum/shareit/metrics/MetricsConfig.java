@@ -0,0 +1,15 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(QueryCountingStatementInspector statementInspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementInspector);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts statements prepared by Hibernate on the current thread between {@link #start()} and {@link #stop()}.
+ * Tasks wrapped with {@link #propagate(Supplier)} add to the counter of the thread that wrapped them.
+ */
+@Component
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> COUNTER = new ThreadLocal<>();
+
+    public void start() {
+        COUNTER.set(new AtomicInteger());
+    }
+
+    public int stop() {
+        AtomicInteger counter = COUNTER.get();
+        COUNTER.remove();
+        return counter == null ? 0 : counter.get();
+    }
+
+    public <T> Supplier<T> propagate(Supplier<T> task) {
+        AtomicInteger counter = COUNTER.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = COUNTER.get();
+            COUNTER.set(counter);
+            try {
+                return task.get();
+            } finally {
+                if (previous == null) {
+                    COUNTER.remove();
+                } else {
+                    COUNTER.set(previous);
+                }
+            }
+        };
+    }
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger counter = COUNTER.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token buckets keyed on X-Sharer-User-Id, with separate read and write budgets.
+ * Runs before every other filter so a throttled call never touches the connection pool.
+ * Buckets of users idle for shareit.rate-limit.idle-timeout are evicted; requests without the header are not limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Cache<Long, UserBuckets> buckets;
+    private final ObjectMapper objectMapper;
+    private final long readCapacity;
+    private final double readRate;
+    private final long writeCapacity;
+    private final double writeRate;
+    private final Counter readAllowed;
+    private final Counter readThrottled;
+    private final Counter writeAllowed;
+    private final Counter writeThrottled;
+
+    public RateLimitFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${shareit.rate-limit.read-capacity:1000}") long readCapacity,
+                           @Value("${shareit.rate-limit.read-rate:200}") double readRate,
+                           @Value("${shareit.rate-limit.write-capacity:500}") long writeCapacity,
+                           @Value("${shareit.rate-limit.write-rate:100}") double writeRate,
+                           @Value("${shareit.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                           @Value("${shareit.rate-limit.maximum-users:100000}") long maximumUsers) {
+        this.objectMapper = objectMapper;
+        this.readCapacity = readCapacity;
+        this.readRate = readRate;
+        this.writeCapacity = writeCapacity;
+        this.writeRate = writeRate;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maximumUsers)
+                .build();
+
+        this.readAllowed = counter(meterRegistry, "read", "allowed");
+        this.readThrottled = counter(meterRegistry, "read", "throttled");
+        this.writeAllowed = counter(meterRegistry, "write", "allowed");
+        this.writeThrottled = counter(meterRegistry, "write", "throttled");
+        Gauge.builder("shareit.rate-limit.users", buckets, Cache::estimatedSize)
+                .description("Users with a live rate-limit bucket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long userId = userId(request);
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean read = READ_METHODS.contains(request.getMethod());
+        UserBuckets userBuckets = buckets.get(userId, key -> newBuckets());
+        long waitNanos = (read ? userBuckets.read : userBuckets.write).tryAcquire(System.nanoTime());
+        if (waitNanos == 0) {
+            (read ? readAllowed : writeAllowed).increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        (read ? readThrottled : writeThrottled).increment();
+        reject(response, waitNanos);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("Слишком много запросов, повторите через " + retryAfter + " с"));
+    }
+
+    private UserBuckets newBuckets() {
+        long now = System.nanoTime();
+        return new UserBuckets(new TokenBucket(readCapacity, readRate, now),
+                new TokenBucket(writeCapacity, writeRate, now));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String kind, String outcome) {
+        return Counter.builder("shareit.rate-limit.requests")
+                .description("Requests checked against the per-user rate limit")
+                .tag("kind", kind)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException ignore) {
+            return null;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class UserBuckets {
+        private final TokenBucket read;
+        private final TokenBucket write;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count it keeps the instant at which the bucket would be full
+ * again, so taking a token is a single compare-and-set and refilling needs no background work.
+ */
+public class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, double tokensPerSecond, long nowNanos) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and rate must be positive");
+        }
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000d / tokensPerSecond));
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if the token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long debt = next - nowNanos;
+            if (debt > burstNanos) {
+                return debt - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,12 +1,52 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exceptions.NotFoundDataException;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
 
-/**
- * TODO Sprint add-item-requests.
- */
 @RestController
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
 @RequestMapping(path = "/requests")
+@AllArgsConstructor
+@Validated
 public class ItemRequestController {
+
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.OK)
+    public ItemRequestDto add(@RequestBody @Valid ItemRequestDto itemRequestDto,
+                              @RequestHeader("X-Sharer-User-Id") long idUser) throws NotFoundDataException {
+        return itemRequestService.add(itemRequestDto, idUser);
+    }
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public List<ItemRequestDto> getOwn(@RequestHeader("X-Sharer-User-Id") long idUser) throws NotFoundDataException {
+        return itemRequestService.getOwn(idUser);
+    }
+
+    @GetMapping(value = "/all")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ItemRequestDto> getAll(@RequestHeader("X-Sharer-User-Id") long idUser,
+                                       @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                       @RequestParam(defaultValue = "10") @Positive int size) throws NotFoundDataException {
+        return itemRequestService.getAll(idUser, from, size);
+    }
+
+    @GetMapping(value = "/{idRequest}")
+    @ResponseStatus(HttpStatus.OK)
+    public ItemRequestDto get(@PathVariable long idRequest,
+                              @RequestHeader("X-Sharer-User-Id") long idUser) throws NotFoundDataException {
+        return itemRequestService.get(idRequest, idUser);
+    }
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    List<ItemRequest> findByClient_IdOrderByCreatedDescIdDesc(long idClient);
+
+    List<ItemRequest> findByClient_IdNotOrderByCreatedDescIdDesc(long idClient, Pageable pageable);
+}
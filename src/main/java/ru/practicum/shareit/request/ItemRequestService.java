@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.exceptions.NotFoundDataException;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+
+    ItemRequestDto add(ItemRequestDto itemRequestDto, long idUser) throws NotFoundDataException;
+
+    List<ItemRequestDto> getOwn(long idUser) throws NotFoundDataException;
+
+    List<ItemRequestDto> getAll(long idUser, int from, int size) throws NotFoundDataException;
+
+    ItemRequestDto get(long idRequest, long idUser) throws NotFoundDataException;
+}
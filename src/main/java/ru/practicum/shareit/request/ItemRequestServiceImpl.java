@@ -0,0 +1,94 @@
+package ru.practicum.shareit.request;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exceptions.NotFoundDataException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.paging.OffsetPageRequest;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
+@AllArgsConstructor
+@Timed("shareit.service")
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserService userService;
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.REQUEST_FEED, allEntries = true)
+    public ItemRequestDto add(ItemRequestDto itemRequestDto, long idUser) throws NotFoundDataException {
+        ItemRequest itemRequest = RequestMapper.fromDto(itemRequestDto, userService.getUserById(idUser));
+        itemRequest.setCreated(LocalDateTime.now());
+
+        return RequestMapper.toDto(itemRequestRepository.save(itemRequest), Collections.emptyList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOwn(long idUser) throws NotFoundDataException {
+        checkUser(idUser);
+
+        return withAnswers(itemRequestRepository.findByClient_IdOrderByCreatedDescIdDesc(idUser));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.REQUEST_FEED, key = "{#idUser, #from, #size}")
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAll(long idUser, int from, int size) throws NotFoundDataException {
+        checkUser(idUser);
+
+        return withAnswers(itemRequestRepository.findByClient_IdNotOrderByCreatedDescIdDesc(idUser,
+                OffsetPageRequest.of(from, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto get(long idRequest, long idUser) throws NotFoundDataException {
+        checkUser(idUser);
+
+        Optional<ItemRequest> itemRequest = itemRequestRepository.findById(idRequest);
+        if (itemRequest.isEmpty()) {
+            throw new NotFoundDataException("Запрос не найден");
+        }
+
+        return withAnswers(List.of(itemRequest.get())).get(0);
+    }
+
+    private void checkUser(long idUser) throws NotFoundDataException {
+        if (!userService.existsById(idUser)) {
+            throw new NotFoundDataException("Пользователь не найден");
+        }
+    }
+
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> ids = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersByRequestIds(ids).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::getRequestId));
+
+        return itemRequests.stream()
+                .map(itemRequest -> RequestMapper.toDto(itemRequest,
+                        answers.getOrDefault(itemRequest.getId(), Collections.emptyList())))
+                .toList();
+    }
+}
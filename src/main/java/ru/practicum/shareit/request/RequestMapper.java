@@ -1,14 +1,26 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
 
 public class RequestMapper {
 
-    public ItemRequestDto toDto(ItemRequest itemRequest) {
+    public static ItemRequestDto toDto(ItemRequest itemRequest, List<ItemAnswerDto> items) {
         return ItemRequestDto.builder()
+                .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
-                .clientName(itemRequest.getClient().getName())
                 .created(itemRequest.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemRequest fromDto(ItemRequestDto itemRequestDto, User client) {
+        return ItemRequest.builder()
+                .description(itemRequestDto.getDescription())
+                .client(client)
                 .build();
     }
 }
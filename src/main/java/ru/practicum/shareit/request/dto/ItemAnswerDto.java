@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemAnswerDto {
+
+    private long id;
+    private String name;
+    private long ownerId;
+    @JsonIgnore
+    private long requestId;
+}
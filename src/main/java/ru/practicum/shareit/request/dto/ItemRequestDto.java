@@ -1,21 +1,27 @@
 package ru.practicum.shareit.request.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ItemRequestDto {
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long id;
+    @NotBlank
     private String description;
-    private String clientName;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private LocalDateTime created;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<ItemAnswerDto> items;
 }
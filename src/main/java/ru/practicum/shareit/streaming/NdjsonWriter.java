@@ -0,0 +1,51 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes values as newline-delimited JSON, one line per value, flushing every few rows.
+ * The underlying stream is left open for the servlet container to close.
+ */
+public class NdjsonWriter implements Closeable {
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final JsonGenerator generator;
+    private long rows;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    public void write(Object value) {
+        try {
+            generator.writeObject(value);
+            if (++rows % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (rows > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
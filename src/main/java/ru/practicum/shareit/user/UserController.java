@@ -1,11 +1,17 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotNewEmail;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.streaming.NdjsonWriter;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -20,13 +26,21 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public User addUser(@Valid @RequestBody User user) throws NotNewEmail, NotFoundDataException {
+    public User addUser(@Valid @RequestBody User user) throws NotNewEmail, NotFoundDataException,
+            ValidationException {
         return userService.addUser(user);
     }
 
+    @PostMapping(value = "/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public BatchResultDto addUsers(@RequestBody List<User> users) throws ValidationException {
+        return userService.addUsers(users);
+    }
+
     @PatchMapping(value = "/{id}")
     @ResponseStatus(HttpStatus.OK)
     public User updateUser(@RequestBody User user, @PathVariable long id) throws NotNewEmail, NotFoundDataException {
@@ -43,6 +57,16 @@ public class UserController {
         return userService.getAll();
     }
 
+    @GetMapping(value = "/export", produces = NdjsonWriter.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+                userService.exportAll(writer::write);
+            }
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.NDJSON).body(body);
+    }
+
     @DeleteMapping(value = "/{id}")
     public void deleteUser(@PathVariable long id) throws NotFoundDataException {
         userService.deleteUser(id);
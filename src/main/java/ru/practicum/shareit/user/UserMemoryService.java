@@ -0,0 +1,90 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.exceptions.NotFoundDataException;
+import ru.practicum.shareit.exceptions.NotNewEmail;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * UserService over {@link UserStorage}, used when shareit.storage=memory.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "memory")
+@AllArgsConstructor
+@Timed("shareit.service")
+public class UserMemoryService implements UserService {
+
+    private final UserStorage userStorage;
+    private final BatchValidator batchValidator;
+
+    @Override
+    public User addUser(User user) throws NotNewEmail, NotFoundDataException, ValidationException {
+        return userStorage.addUser(user);
+    }
+
+    @Override
+    public BatchResultDto addUsers(List<User> users) throws ValidationException {
+        batchValidator.checkSize(users);
+
+        BatchResultDto result = new BatchResultDto();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String error = batchValidator.validate(user);
+            if (error != null) {
+                result.addError(i, error);
+                continue;
+            }
+            try {
+                result.addCreated(i, userStorage.addUser(user).getId());
+            } catch (NotNewEmail | NotFoundDataException | ValidationException e) {
+                result.addError(i, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public User updateUser(User user, long id) throws NotNewEmail, NotFoundDataException {
+        return userStorage.updateUser(user, id);
+    }
+
+    @Override
+    public User getUserById(long id) throws NotFoundDataException {
+        return userStorage.getUserById(id);
+    }
+
+    @Override
+    public boolean existsById(long id) {
+        try {
+            userStorage.getUserById(id);
+            return true;
+        } catch (NotFoundDataException ignore) {
+            return false;
+        }
+    }
+
+    @Override
+    public List<UserDto> getAll() {
+        return userStorage.getAll();
+    }
+
+    @Override
+    public void exportAll(Consumer<UserDto> consumer) {
+        userStorage.getAll().forEach(consumer);
+    }
+
+    @Override
+    public void deleteUser(long id) throws NotFoundDataException {
+        userStorage.deleteUser(id);
+    }
+}
@@ -1,81 +1,85 @@
 package ru.practicum.shareit.user;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotNewEmail;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
-@Data
-@AllArgsConstructor
+/**
+ * Users are kept as copies, so callers never observe a half-applied update.
+ * Email uniqueness is enforced through an email to id index reserved with putIfAbsent.
+ */
 @Repository
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "memory")
 public class UserMemoryStorage implements UserStorage {
 
-    private Map<Long, User> users;
-    private Set<String> emails;
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> emails = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
 
     @Override
-    public User addUser(User user) throws NotNewEmail, NotFoundDataException {
-        if (isNewUser(user)) {
-            if (isNewEmail(user)) {
-                long id = generateId();
-                id++;
-                user.setId(id);
-                users.put(user.getId(), user);
-                emails.add(user.getEmail());
-            }
+    public User addUser(User user) throws NotNewEmail, ValidationException {
+        if (user.getEmail() == null || user.getEmail().isBlank()) {
+            throw new ValidationException("Адрес электронной почты не указан");
+        }
+        long id = ids.incrementAndGet();
+        if (emails.putIfAbsent(user.getEmail(), id) != null) {
+            throw new NotNewEmail("Указанный адрес электронной почты уже используется");
         }
-        return getUserById(user.getId());
+
+        User newUser = copy(user);
+        newUser.setId(id);
+        users.put(id, newUser);
+        return copy(newUser);
     }
 
     @Override
     public User updateUser(User user, long id) throws NotNewEmail, NotFoundDataException {
-        if (users.containsKey(id)) {
-            user.setId(id);
-            User userForUpdate = users.get(id);
-            if (user.getEmail() == null && user.getName() != null) {
-                userForUpdate.setName(user.getName());
-                users.put(id, userForUpdate);
-            } else if (user.getName() == null && user.getEmail() != null) {
-                if (isNewEmail(user)) {
-                    if (!emails.contains(user.getEmail())) {
-                        userForUpdate.setEmail(user.getEmail());
-                        users.put(id, userForUpdate);
-                    } else {
-                        throw new NotNewEmail("Указанный адрес электронной почты уже используется");
-                    }
-                }
-            } else {
-                if (isNewEmail(user)) {
-                    if (!emails.contains(user.getEmail())) {
-                        userForUpdate.setEmail(user.getEmail());
-                        userForUpdate.setName(user.getName());
-                        users.put(id, userForUpdate);
-                    } else {
-                        throw new NotNewEmail("Указанный адрес электронной почты уже используется");
-                    }
+        boolean[] emailTaken = new boolean[1];
+        User updated = users.computeIfPresent(id, (key, oldUser) -> {
+            String email = user.getEmail() == null ? oldUser.getEmail() : user.getEmail();
+            if (!email.equals(oldUser.getEmail())) {
+                Long owner = emails.putIfAbsent(email, id);
+                if (owner != null && owner != id) {
+                    emailTaken[0] = true;
+                    return oldUser;
                 }
+                emails.remove(oldUser.getEmail(), id);
             }
-        } else {
+
+            User newUser = copy(oldUser);
+            newUser.setEmail(email);
+            if (user.getName() != null) {
+                newUser.setName(user.getName());
+            }
+            return newUser;
+        });
+
+        if (updated == null) {
             throw new NotFoundDataException("Пользователь не найден");
         }
-        return getUserById(id);
+        if (emailTaken[0]) {
+            throw new NotNewEmail("Указанный адрес электронной почты уже используется");
+        }
+        return copy(updated);
     }
 
     @Override
     public User getUserById(long id) throws NotFoundDataException {
-        if (!users.containsKey(id)) {
+        User user = users.get(id);
+        if (user == null) {
             throw new NotFoundDataException("Пользователь не найден");
         }
-        return users.get(id);
+        return copy(user);
     }
 
     @Override
@@ -87,34 +91,18 @@ public class UserMemoryStorage implements UserStorage {
 
     @Override
     public void deleteUser(long id) throws NotFoundDataException {
-        if (users.containsKey(id)) {
-            users.remove(id);
-        } else {
+        User user = users.remove(id);
+        if (user == null) {
             throw new NotFoundDataException("Пользователь не найден");
         }
-
-    }
-
-    private boolean isNewUser(User user) {
-        Optional<User> checkUser = users.values().stream()
-                .filter(u -> u.equals(user))
-                .findFirst();
-        return checkUser.isEmpty();
-    }
-
-    private boolean isNewEmail(User user) throws NotNewEmail {
-        Optional<User> checkUser = users.values().stream()
-                .filter(u -> u.getEmail().equals(user.getEmail()))
-                .findAny();
-        if (checkUser.isPresent()) {
-            throw new NotNewEmail("Указанный адрес электронной почты уже используется");
-        }
-        return true;
+        emails.remove(user.getEmail(), id);
     }
 
-    private long generateId() {
-        return users.keySet().stream()
-                .max((id1, id2) -> Math.toIntExact(id2 - id1))
-                .orElse(1L);
+    private static User copy(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        return copy;
     }
 }
@@ -1,7 +1,26 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.name, u.email) from User u order by u.id")
+    List<UserDto> findAllDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.name, u.email) from User u order by u.id")
+    Stream<UserDto> streamAllDtos();
 }
@@ -1,21 +1,30 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotNewEmail;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
-    User addUser(User user) throws NotNewEmail, NotFoundDataException;
+    User addUser(User user) throws NotNewEmail, NotFoundDataException, ValidationException;
+
+    BatchResultDto addUsers(List<User> users) throws ValidationException;
 
     User updateUser(User user, long id) throws NotNewEmail, NotFoundDataException;
 
     User getUserById(long id) throws NotFoundDataException;
 
+    boolean existsById(long id);
+
     List<UserDto> getAll();
 
+    void exportAll(Consumer<UserDto> consumer);
+
     void deleteUser(long id) throws NotFoundDataException;
 }
@@ -1,20 +1,36 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotNewEmail;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
+@ConditionalOnProperty(name = "shareit.storage", havingValue = "jpa", matchIfMissing = true)
 @AllArgsConstructor
+@Timed("shareit.service")
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final BatchValidator batchValidator;
 
     @Override
     public User addUser(User user) throws NotNewEmail, NotFoundDataException {
@@ -22,6 +38,44 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
+    public BatchResultDto addUsers(List<User> users) throws ValidationException {
+        batchValidator.checkSize(users);
+
+        Set<String> emails = users.stream()
+                .filter(Objects::nonNull)
+                .map(User::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> usedEmails = emails.isEmpty() ? new HashSet<>() : new HashSet<>(userRepository.findExistingEmails(emails));
+
+        BatchResultDto result = new BatchResultDto();
+        List<Integer> rows = new ArrayList<>();
+        List<User> newUsers = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            String error = batchValidator.validate(user);
+            if (error == null && !usedEmails.add(user.getEmail())) {
+                error = "Указанный адрес электронной почты уже используется";
+            }
+            if (error != null) {
+                result.addError(i, error);
+                continue;
+            }
+            user.setId(null);
+            rows.add(i);
+            newUsers.add(user);
+        }
+
+        List<User> savedUsers = userRepository.saveAll(newUsers);
+        for (int i = 0; i < savedUsers.size(); i++) {
+            result.addCreated(rows.get(i), savedUsers.get(i).getId());
+        }
+        return result;
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.USERS, key = "#id")
     public User updateUser(User user, long id) throws NotNewEmail, NotFoundDataException {
         user.setId(id);
         User userDb = userRepository.findById(id).get();
@@ -36,6 +90,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS)
+    @Transactional(readOnly = true)
     public User getUserById(long id) throws NotFoundDataException {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isEmpty()) {
@@ -45,15 +101,31 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USER_EXISTS, unless = "!#result")
+    @Transactional(readOnly = true)
+    public boolean existsById(long id) {
+        return userRepository.existsById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAll() {
-        List<User> userList = userRepository.findAll();
-        List<UserDto> userDtoList = userList.stream()
-                .map(UserMapper::toDto)
-                .toList();
-        return userDtoList;
+        return userRepository.findAllDtos();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAllDtos()) {
+            users.forEach(consumer);
+        }
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USER_EXISTS, key = "#id")
+    })
     public void deleteUser(long id) throws NotFoundDataException {
         userRepository.deleteById(id);
     }
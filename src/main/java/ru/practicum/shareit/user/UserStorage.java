@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.exceptions.NotFoundDataException;
 import ru.practicum.shareit.exceptions.NotNewEmail;
+import ru.practicum.shareit.exceptions.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
@@ -9,7 +10,7 @@ import java.util.List;
 
 public interface UserStorage {
 
-    User addUser(User user) throws NotNewEmail, NotFoundDataException;
+    User addUser(User user) throws NotNewEmail, NotFoundDataException, ValidationException;
 
     User updateUser(User user, long id) throws NotNewEmail, NotFoundDataException;
 
@@ -1,7 +1,13 @@
 CREATE SCHEMA IF NOT EXISTS public;
 
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS request_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('users_seq') NOT NULL,
     name VARCHAR(255),
     email VARCHAR(512),
     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -9,7 +15,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS request (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('request_seq') NOT NULL,
     description VARCHAR(255) NOT NULL,
     requestor_id BIGINT,
     created TIMESTAMP,
@@ -18,7 +24,7 @@ CREATE TABLE IF NOT EXISTS request (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('items_seq') NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR NOT NULL,
     is_available BOOLEAN,
@@ -30,7 +36,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('bookings_seq') NOT NULL,
     start_date TIMESTAMP,
     end_date TIMESTAMP,
     item_id BIGINT,
@@ -42,7 +48,7 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('comments_seq') NOT NULL,
     text VARCHAR(1000),
     item_id BIGINT,
     author_id BIGINT,
@@ -50,4 +56,14 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT pk_comments PRIMARY KEY (id),
     CONSTRAINT fk_author FOREIGN KEY(author_id) REFERENCES users(id),
     CONSTRAINT fk_item FOREIGN KEY(item_id) REFERENCES items(id)
-);
\ No newline at end of file
+);
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_request_requestor_created ON request (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_request_created ON request (created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_date);
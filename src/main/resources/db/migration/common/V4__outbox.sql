@@ -0,0 +1,12 @@
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT DEFAULT nextval('outbox_seq') NOT NULL,
+    type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    item_id BIGINT,
+    user_id BIGINT,
+    detail VARCHAR(32),
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
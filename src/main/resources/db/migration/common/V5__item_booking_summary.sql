@@ -0,0 +1,17 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_end TIMESTAMP,
+    next_start TIMESTAMP,
+    rolls_at TIMESTAMP,
+    approved_count BIGINT DEFAULT 0 NOT NULL,
+    pending_count BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_summary_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_rolls_at ON item_booking_summary (rolls_at);
+
+-- Existing rows are due at once: reads fall back to the bookings until the roll-forward job fills them in.
+INSERT INTO item_booking_summary (item_id, rolls_at)
+SELECT DISTINCT b.item_id, LOCALTIMESTAMP FROM bookings b
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summary s WHERE s.item_id = b.item_id);
@@ -0,0 +1,2 @@
+-- Booking summary reads check the outbox for events of their items that are not applied yet.
+CREATE INDEX IF NOT EXISTS idx_outbox_events_item ON outbox_events (item_id);
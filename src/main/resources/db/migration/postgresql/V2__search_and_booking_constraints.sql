@@ -0,0 +1,26 @@
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users)));
+SELECT setval('request_seq', GREATEST((SELECT last_value FROM request_seq), (SELECT COALESCE(MAX(id), 0) FROM request)));
+SELECT setval('items_seq', GREATEST((SELECT last_value FROM items_seq), (SELECT COALESCE(MAX(id), 0) FROM items)));
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 0) FROM bookings)));
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id), 0) FROM comments)));
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('simple', coalesce(name, '') || ' ' || coalesce(description, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS idx_items_search_trgm ON items
+    USING GIN ((coalesce(name, '') || ' ' || coalesce(description, '')) gin_trgm_ops) WHERE is_available;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status IN (''WAITING'', ''APPROVED''));
+    END IF;
+END';
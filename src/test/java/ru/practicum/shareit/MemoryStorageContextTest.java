@@ -0,0 +1,69 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.ItemMemoryService;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserMemoryService;
+import ru.practicum.shareit.user.UserService;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("memory")
+class MemoryStorageContextTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void bootsWithoutDataSourceOnMemoryServices() {
+        assertThat(context.getBeanNamesForType(DataSource.class)).isEmpty();
+        assertThat(context.getBean(UserService.class)).isInstanceOf(UserMemoryService.class);
+        assertThat(context.getBean(ItemService.class)).isInstanceOf(ItemMemoryService.class);
+    }
+
+    @Test
+    void usersAndItemsRoundTripThroughMemoryStorage() {
+        long ownerId = id(restTemplate.postForEntity("/users",
+                Map.of("name", "owner", "email", "owner@memory.test"), Map.class));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(ownerId));
+        long itemId = id(restTemplate.postForEntity("/items", new HttpEntity<>(
+                Map.of("name", "Дрель", "description", "Аккумуляторная дрель", "available", "true"), headers), Map.class));
+
+        ResponseEntity<Map> item = restTemplate.exchange("/items/" + itemId, HttpMethod.GET,
+                new HttpEntity<>(headers), Map.class);
+        assertThat(item.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(item.getBody()).containsEntry("name", "Дрель");
+
+        ResponseEntity<List> found = restTemplate.exchange("/items/search?text=дрель", HttpMethod.GET,
+                new HttpEntity<>(headers), List.class);
+        assertThat(found.getBody()).hasSize(1);
+
+        ResponseEntity<Map> duplicate = restTemplate.postForEntity("/users",
+                Map.of("name", "other", "email", "owner@memory.test"), Map.class);
+        assertThat(duplicate.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    private long id(ResponseEntity<Map> response) {
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+}
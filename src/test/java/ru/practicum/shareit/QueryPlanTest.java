@@ -0,0 +1,207 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.metrics.QueryCountingStatementInspector;
+import ru.practicum.shareit.paging.OffsetPageRequest;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the hot repository methods, then EXPLAINs the SQL Hibernate generated for them with sequential scans
+ * disabled, so a plan only falls back to a sequential scan when no usable index exists.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecordingStatementInspector statementInspector;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private long itemId;
+    private long ownerId;
+    private long bookerId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute("INSERT INTO users (name, email) " +
+                "SELECT 'user' || g, 'user' || g || '@plan.test' FROM generate_series(1, 500) g");
+        jdbcTemplate.execute("INSERT INTO items (name, description, is_available, owner_id) " +
+                "SELECT 'item' || g, 'description ' || g, true, u.id FROM generate_series(1, 5000) g " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM users) u ON u.rn = 1 + g % 500");
+        jdbcTemplate.execute("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "SELECT LOCALTIMESTAMP + make_interval(hours => k * 2 - 10), " +
+                "LOCALTIMESTAMP + make_interval(hours => k * 2 - 9), i.id, u.id, " +
+                "CASE WHEN k % 3 = 0 THEN 'REJECTED' ELSE 'APPROVED' END " +
+                "FROM items i CROSS JOIN generate_series(0, 9) k " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM users) u ON u.rn = 1 + (i.id + k) % 500");
+        jdbcTemplate.execute("INSERT INTO comments (text, item_id, author_id, created) " +
+                "SELECT 'comment', b.item_id, b.booker_id, LOCALTIMESTAMP FROM bookings b WHERE b.status = 'APPROVED' " +
+                "AND b.end_date < LOCALTIMESTAMP");
+        jdbcTemplate.execute("ANALYZE");
+
+        itemId = jdbcTemplate.queryForObject("SELECT min(id) FROM items", Long.class);
+        ownerId = jdbcTemplate.queryForObject("SELECT owner_id FROM items WHERE id = ?", Long.class, itemId);
+        bookerId = jdbcTemplate.queryForObject("SELECT min(booker_id) FROM bookings WHERE item_id = ?", Long.class, itemId);
+    }
+
+    Stream<Arguments> coreQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        OffsetPageRequest page = OffsetPageRequest.of(0, 10);
+        return Stream.of(
+                Arguments.of("bookings of an item",
+                        (Runnable) () -> bookingRepository.findByItem_id(itemId)),
+                Arguments.of("booker bookings page",
+                        (Runnable) () -> bookingRepository.findByBooker_IdOrderByStartDescIdDesc(bookerId, page)),
+                Arguments.of("booker past bookings page",
+                        (Runnable) () -> bookingRepository.findByBooker_IdAndEndBeforeOrderByStartDescIdDesc(bookerId,
+                                now, page)),
+                Arguments.of("owner bookings page",
+                        (Runnable) () -> bookingRepository.findByItem_Owner_IdOrderByStartDescIdDesc(ownerId, page)),
+                Arguments.of("owner booking dates",
+                        (Runnable) () -> bookingRepository.findBookingDatesByOwnerId(ownerId, now)),
+                Arguments.of("items of an owner",
+                        (Runnable) () -> itemRepository.findByOwner_IdOrderById(ownerId)),
+                Arguments.of("comments of an item",
+                        (Runnable) () -> commentRepository.findByItem_id(itemId)),
+                Arguments.of("comment eligibility",
+                        (Runnable) () -> bookingRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(bookerId,
+                                itemId, BookingStatus.APPROVED, now)),
+                Arguments.of("item search",
+                        (Runnable) () -> itemRepository.search("item1", "%item1%", 0, 10)),
+                Arguments.of("free item search",
+                        (Runnable) () -> itemRepository.searchFree("item1", "%item1%", now, now.plusDays(2), 0, 10)),
+                Arguments.of("request answers",
+                        (Runnable) () -> itemRepository.findAnswersByRequestIds(List.of(1L, 51L))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("coreQueries")
+    void coreQueryDoesNotScanSequentially(String name, Runnable query) {
+        String sql = statementInspector.record(query).get(0);
+        String plan = explain(sql);
+
+        assertThat(plan).as("plan of %s:%n%s%n%s", name, sql, plan).doesNotContain("\"Seq Scan\"");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet plan = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) "
+                        + numberPlaceholders(sql))) {
+                    plan.next();
+                    return plan.getString(1);
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    /**
+     * Turns the JDBC placeholders into $n parameters, which EXPLAIN (GENERIC_PLAN) plans without values.
+     */
+    private static String numberPlaceholders(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        char quote = 0;
+        for (char c : sql.toCharArray()) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                result.append(c);
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+                result.append(c);
+            } else if (c == '?') {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Keeps the SQL Hibernate prepares on the recording thread, so the plans are those of the generated statements.
+     */
+    static class RecordingStatementInspector extends QueryCountingStatementInspector {
+
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        List<String> record(Runnable query) {
+            List<String> statements = new ArrayList<>();
+            STATEMENTS.set(statements);
+            try {
+                query.run();
+            } finally {
+                STATEMENTS.remove();
+            }
+            assertThat(statements).as("statements of the query").isNotEmpty();
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return super.inspect(sql);
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        @Primary
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+    }
+}
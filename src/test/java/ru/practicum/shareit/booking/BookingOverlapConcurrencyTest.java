@@ -0,0 +1,100 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.booking.BookingTestClient.id;
+import static ru.practicum.shareit.booking.BookingTestClient.runConcurrently;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingOverlapConcurrencyTest {
+
+    private static final int REQUESTS = 300;
+    private static final int BOOKERS = 20;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private BookingTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new BookingTestClient(restTemplate, "overlap.test");
+    }
+
+    @Test
+    void parallelBookingsOfOneItemNeverOverlap() throws Exception {
+        long ownerId = client.createUser("owner");
+        long itemId = client.createItem(ownerId);
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(client.createUser("booker" + i));
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Random random = new Random(42);
+        List<Callable<ResponseEntity<Map>>> requests = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(240));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+            long bookerId = bookerIds.get(i % BOOKERS);
+            requests.add(() -> client.postBooking(itemId, bookerId, start, end));
+        }
+
+        List<ResponseEntity<Map>> responses = runConcurrently(requests);
+
+        List<Callable<ResponseEntity<Map>>> approvals = new ArrayList<>();
+        for (ResponseEntity<Map> response : responses) {
+            assertThat(response.getStatusCode()).isIn(HttpStatus.CREATED, HttpStatus.BAD_REQUEST);
+            if (HttpStatus.CREATED.equals(response.getStatusCode())) {
+                long bookingId = ((Number) response.getBody().get("id")).longValue();
+                approvals.add(() -> client.decide(bookingId, ownerId, true));
+            }
+        }
+        assertThat(approvals).isNotEmpty();
+
+        for (ResponseEntity<Map> response : runConcurrently(approvals)) {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+
+        List<Booking> approved = bookingRepository.findByItem_id(itemId).stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .toList();
+        assertThat(approved).hasSize(approvals.size());
+        for (int i = 0; i < approved.size(); i++) {
+            for (int j = i + 1; j < approved.size(); j++) {
+                Booking first = approved.get(i);
+                Booking second = approved.get(j);
+                assertThat(first.getStart().isBefore(second.getEnd()) && second.getStart().isBefore(first.getEnd()))
+                        .as("bookings %d and %d overlap", first.getId(), second.getId())
+                        .isFalse();
+            }
+        }
+    }
+}
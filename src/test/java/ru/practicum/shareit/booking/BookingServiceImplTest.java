@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.event.OutboxPublisher;
+import ru.practicum.shareit.exceptions.BookingException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookingServiceImplTest {
+
+    private static final long BOOKER = 1L;
+    private static final long ITEM = 10L;
+    private static final LocalDateTime TOMORROW = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final BookingServiceImpl bookingService = new BookingServiceImpl(bookingRepository, userService,
+            itemRepository, mock(BatchValidator.class), mock(ItemAvailabilityIndex.class), mock(OutboxPublisher.class),
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    void bookingThatEndsBeforeItStartsIsRejected() throws Exception {
+        when(userService.getUserById(BOOKER)).thenReturn(new User());
+
+        assertThatThrownBy(() -> bookingService.add(booking(TOMORROW.plusHours(2), TOMORROW), BOOKER))
+                .isInstanceOf(BookingException.class);
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void invertedRowInBatchIsReportedWithoutDroppingOtherRows() throws Exception {
+        when(userService.getUserById(BOOKER)).thenReturn(new User());
+        when(itemRepository.findAllById(any())).thenReturn(List.of(Item.builder()
+                .id(ITEM)
+                .name("Дрель")
+                .available(true)
+                .build()));
+        AtomicLong ids = new AtomicLong();
+        when(bookingRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(booking -> booking.setId(ids.incrementAndGet()));
+            return bookings;
+        });
+
+        BatchResultDto result = bookingService.addBookings(List.of(
+                booking(TOMORROW, TOMORROW.plusHours(1)),
+                booking(TOMORROW.plusHours(5), TOMORROW.plusHours(3))), BOOKER);
+
+        assertThat(result.getCreated()).hasSize(1);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentOverlapRejectsOnlyTheConflictingRows() throws Exception {
+        when(userService.getUserById(BOOKER)).thenReturn(new User());
+        when(itemRepository.findAllById(any())).thenReturn(List.of(Item.builder()
+                .id(ITEM)
+                .name("Дрель")
+                .available(true)
+                .build()));
+        LocalDateTime taken = TOMORROW.plusHours(5);
+        AtomicLong ids = new AtomicLong();
+        when(bookingRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            if (bookings.stream().anyMatch(booking -> booking.getStart().equals(taken))) {
+                throw new DataIntegrityViolationException("conflicting key value violates exclusion constraint",
+                        new SQLException("ex_bookings_item_period", "23P01"));
+            }
+            bookings.forEach(booking -> booking.setId(ids.incrementAndGet()));
+            return bookings;
+        });
+
+        BatchResultDto result = bookingService.addBookings(List.of(
+                booking(TOMORROW, TOMORROW.plusHours(1)),
+                booking(taken, taken.plusHours(1)),
+                booking(TOMORROW.plusHours(8), TOMORROW.plusHours(9))), BOOKER);
+
+        assertThat(result.getCreated()).extracting(BatchRowDto::getIndex).containsExactly(0, 2);
+        assertThat(result.getErrors()).extracting(BatchRowDto::getIndex).containsExactly(1);
+    }
+
+    @Test
+    void pageStartsAtTheRequestedOffset() {
+        bookingService.getByBooker(BOOKER, "ALL", 5, 10);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(bookingRepository).findByBooker_IdOrderByStartDescIdDesc(eq(BOOKER), pageable.capture());
+        assertThat(pageable.getValue().getOffset()).isEqualTo(5);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(10);
+    }
+
+    private static BookingDto booking(LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(ITEM)
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.practicum.shareit.booking.BookingTestClient.id;
+import static ru.practicum.shareit.booking.BookingTestClient.runConcurrently;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingStatusConcurrencyTest {
+
+    private static final int BOOKINGS = 40;
+    private static final int DECISIONS_PER_BOOKING = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private BookingTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = new BookingTestClient(restTemplate, "status.test");
+    }
+
+    @Test
+    void concurrentDecisionsOnOneBookingLetExactlyOneWin() throws Exception {
+        long ownerId = client.createUser("owner");
+        long bookerId = client.createUser("booker");
+        long itemId = client.createItem(ownerId);
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(id(client.postBooking(itemId, bookerId, base.plusHours(2L * i), base.plusHours(2L * i + 1))));
+        }
+
+        List<Long> targets = new ArrayList<>();
+        List<Callable<ResponseEntity<Map>>> decisions = new ArrayList<>();
+        for (long bookingId : bookingIds) {
+            for (int i = 0; i < DECISIONS_PER_BOOKING; i++) {
+                boolean approved = i % 2 == 0;
+                targets.add(bookingId);
+                decisions.add(() -> client.decide(bookingId, ownerId, approved));
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, new Random(42));
+
+        List<Callable<ResponseEntity<Map>>> shuffled = new ArrayList<>();
+        List<Long> shuffledTargets = new ArrayList<>();
+        for (int index : order) {
+            shuffled.add(decisions.get(index));
+            shuffledTargets.add(targets.get(index));
+        }
+
+        List<ResponseEntity<Map>> responses = runConcurrently(shuffled);
+
+        Map<Long, String> winners = new HashMap<>();
+        for (int i = 0; i < responses.size(); i++) {
+            ResponseEntity<Map> response = responses.get(i);
+            assertThat(response.getStatusCode()).isIn(HttpStatus.OK, HttpStatus.CONFLICT);
+            if (HttpStatus.OK.equals(response.getStatusCode())) {
+                String previous = winners.put(shuffledTargets.get(i), (String) response.getBody().get("status"));
+                assertThat(previous).as("second winner for booking %d", shuffledTargets.get(i)).isNull();
+            }
+        }
+        assertThat(winners).hasSize(BOOKINGS);
+
+        for (long bookingId : bookingIds) {
+            Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+            assertThat(booking.getStatus().name()).isEqualTo(winners.get(bookingId));
+            assertThat(booking.getVersion()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void cancelFollowsTheStateMachine() {
+        long ownerId = client.createUser("cancel-owner");
+        long bookerId = client.createUser("cancel-booker");
+        long itemId = client.createItem(ownerId);
+        LocalDateTime start = LocalDateTime.now().plusDays(30).truncatedTo(ChronoUnit.HOURS);
+
+        long rejectedId = id(client.postBooking(itemId, bookerId, start, start.plusHours(1)));
+        assertThat(client.decide(rejectedId, ownerId, false).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(client.cancel(rejectedId, bookerId).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+
+        long approvedId = id(client.postBooking(itemId, bookerId, start.plusHours(2), start.plusHours(3)));
+        assertThat(client.decide(approvedId, ownerId, true).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(client.cancel(approvedId, ownerId).getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(client.cancel(approvedId, bookerId).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(client.decide(approvedId, ownerId, true).getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+}
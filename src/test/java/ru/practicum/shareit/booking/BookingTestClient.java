@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP calls shared by the booking tests that run against a started application.
+ */
+class BookingTestClient {
+
+    private static final int THREADS = 32;
+
+    private final TestRestTemplate restTemplate;
+    private final String emailDomain;
+
+    BookingTestClient(TestRestTemplate restTemplate, String emailDomain) {
+        this.restTemplate = restTemplate;
+        this.emailDomain = emailDomain;
+    }
+
+    static List<ResponseEntity<Map>> runConcurrently(List<Callable<ResponseEntity<Map>>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<ResponseEntity<Map>> result = new ArrayList<>();
+            for (Future<ResponseEntity<Map>> future : executor.invokeAll(tasks)) {
+                result.add(future.get());
+            }
+            return result;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static long id(ResponseEntity<Map> response) {
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+
+    ResponseEntity<Map> postBooking(long itemId, long bookerId, LocalDateTime start, LocalDateTime end) {
+        Map<String, Object> body = Map.of("itemId", itemId, "start", start.toString(), "end", end.toString());
+        return restTemplate.postForEntity("/bookings", new HttpEntity<>(body, userHeader(bookerId)), Map.class);
+    }
+
+    ResponseEntity<Map> decide(long bookingId, long ownerId, boolean approved) {
+        return restTemplate.exchange("/bookings/" + bookingId + "?approved=" + approved, HttpMethod.PATCH,
+                new HttpEntity<>(userHeader(ownerId)), Map.class);
+    }
+
+    ResponseEntity<Map> cancel(long bookingId, long bookerId) {
+        return restTemplate.exchange("/bookings/" + bookingId + "/cancel", HttpMethod.PATCH,
+                new HttpEntity<>(userHeader(bookerId)), Map.class);
+    }
+
+    long createUser(String name) {
+        Map<String, Object> body = Map.of("name", name, "email", name + "@" + emailDomain);
+        return id(restTemplate.postForEntity("/users", body, Map.class));
+    }
+
+    long createItem(long ownerId) {
+        Map<String, Object> body = Map.of("name", "Дрель", "description", "Простая дрель", "available", "true");
+        return id(restTemplate.postForEntity("/items", new HttpEntity<>(body, userHeader(ownerId)), Map.class));
+    }
+
+    private static HttpHeaders userHeader(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
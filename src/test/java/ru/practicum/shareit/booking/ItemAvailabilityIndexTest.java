@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ItemAvailabilityIndexTest {
+
+    private static final long ITEM = 1L;
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, 100, Duration.ofMinutes(10));
+
+    @Test
+    void freeSlotsAreGapsBetweenWaitingAndApprovedBookings() {
+        when(bookingRepository.findByItem_id(ITEM)).thenReturn(List.of(
+                booking(1, 10, 12, BookingStatus.APPROVED),
+                booking(2, 12, 14, BookingStatus.REJECTED),
+                booking(3, 14, 15, BookingStatus.WAITING),
+                booking(4, 16, 18, BookingStatus.CANCELED)));
+
+        assertThat(index.freeSlots(ITEM, at(9), at(20)))
+                .containsExactly(slot(9, 10), slot(12, 14), slot(15, 20));
+        assertThat(index.freeSlots(ITEM, at(11), at(14)))
+                .containsExactly(slot(12, 14));
+        assertThat(index.freeSlots(ITEM, at(10), at(12))).isEmpty();
+    }
+
+    @Test
+    void changesAreAppliedIncrementallyAfterTheFirstLoad() {
+        when(bookingRepository.findByItem_id(ITEM)).thenReturn(List.of(booking(1, 10, 12, BookingStatus.APPROVED)));
+        assertThat(index.freeSlots(ITEM, at(8), at(16))).containsExactly(slot(8, 10), slot(12, 16));
+
+        index.put(ITEM, 2, at(13), at(14));
+        assertThat(index.freeSlots(ITEM, at(8), at(16))).containsExactly(slot(8, 10), slot(12, 13), slot(14, 16));
+
+        index.remove(ITEM, 1);
+        assertThat(index.freeSlots(ITEM, at(8), at(16))).containsExactly(slot(8, 13), slot(14, 16));
+
+        verify(bookingRepository, times(1)).findByItem_id(ITEM);
+    }
+
+    @Test
+    void bookingsWithTheSameStartAreKeptApart() {
+        when(bookingRepository.findByItem_id(ITEM)).thenReturn(List.of(
+                booking(1, 10, 14, BookingStatus.APPROVED),
+                booking(2, 10, 11, BookingStatus.WAITING)));
+        assertThat(index.freeSlots(ITEM, at(8), at(16))).containsExactly(slot(8, 10), slot(14, 16));
+
+        index.remove(ITEM, 2);
+        assertThat(index.freeSlots(ITEM, at(8), at(16))).containsExactly(slot(8, 10), slot(14, 16));
+        assertThat(index.freeSlots(ITEM, at(12), at(16))).containsExactly(slot(14, 16));
+
+        index.remove(ITEM, 1);
+        assertThat(index.freeSlots(ITEM, at(8), at(16))).containsExactly(slot(8, 16));
+    }
+
+    @Test
+    void changesBeforeTheFirstLoadAreLeftToTheLoad() {
+        index.put(ITEM, 1, at(10), at(12));
+        when(bookingRepository.findByItem_id(ITEM)).thenReturn(List.of());
+
+        assertThat(index.freeSlots(ITEM, at(8), at(16))).containsExactly(slot(8, 16));
+    }
+
+    private static Booking booking(long id, int startHour, int endHour, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .start(at(startHour))
+                .end(at(endHour))
+                .status(status)
+                .build();
+    }
+
+    private static AvailabilitySlotDto slot(int startHour, int endHour) {
+        return new AvailabilitySlotDto(at(startHour), at(endHour));
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+}
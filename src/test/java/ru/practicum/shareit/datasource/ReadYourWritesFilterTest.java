@@ -0,0 +1,69 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        RoutingContext.clear();
+    }
+
+    @Test
+    void userUpdateWithoutHeaderPinsThatUsersReads() throws Exception {
+        perform(request("PATCH", "/users/5", null));
+
+        assertThat(perform(request("GET", "/users/5", null)).primaryOnly).isTrue();
+        assertThat(perform(request("GET", "/items", 5L)).primaryOnly).isTrue();
+        assertThat(perform(request("GET", "/users/6", null)).primaryOnly).isFalse();
+    }
+
+    @Test
+    void writeSetsCookieThatPinsLaterReads() throws Exception {
+        Result created = perform(request("POST", "/users", null));
+        Cookie cookie = created.response.getCookie(ReadYourWritesFilter.PRIMARY_COOKIE);
+        assertThat(cookie).isNotNull();
+
+        MockHttpServletRequest withCookie = request("GET", "/users/7", null);
+        withCookie.setCookies(cookie);
+        assertThat(perform(withCookie).primaryOnly).isTrue();
+        assertThat(perform(request("GET", "/users/7", null)).primaryOnly).isFalse();
+    }
+
+    private Result perform(MockHttpServletRequest request) throws Exception {
+        AtomicBoolean primaryOnly = new AtomicBoolean();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) ->
+                primaryOnly.set(!RoutingContext.propagateReadOnly(RoutingContext::isReplicaEligible).get()));
+        return new Result(primaryOnly.get(), response);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        return request;
+    }
+
+    private static class Result {
+        private final boolean primaryOnly;
+        private final MockHttpServletResponse response;
+
+        Result(boolean primaryOnly, MockHttpServletResponse response) {
+            this.primaryOnly = primaryOnly;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void resetContext() {
+        RoutingContext.clear();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        RoutingContext.clear();
+        routingDataSource.destroy();
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        route(database("replica"));
+
+        assertThat(readWrite.execute(status -> node())).isEqualTo("primary");
+    }
+
+    @Test
+    void workOutsideTransactionUsesPrimary() {
+        route(database("replica"));
+
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        route(database("replica"));
+
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+    }
+
+    @Test
+    void primaryOnlyContextKeepsReadOnlyTransactionOnPrimary() {
+        route(database("replica"));
+        RoutingContext.setPrimaryOnly(true);
+
+        assertThat(readOnly.execute(status -> node())).isEqualTo("primary");
+    }
+
+    @Test
+    void propagatedReadOnlyContextUsesReplicaOnAnotherThread() {
+        route(database("replica"));
+
+        Supplier<String> task = readOnly.execute(status -> RoutingContext.propagate(this::node));
+
+        assertThat(CompletableFuture.supplyAsync(task).join()).isEqualTo("replica");
+    }
+
+    @Test
+    void propagatedPrimaryOnlyContextKeepsAsyncReadOnlyWorkOnPrimary() {
+        route(database("replica"));
+        RoutingContext.setPrimaryOnly(true);
+
+        String[] node = new String[1];
+        Runnable task = RoutingContext.propagateRunnable(() -> node[0] = readOnly.execute(status -> node()));
+        RoutingContext.clear();
+        CompletableFuture.runAsync(task).join();
+
+        assertThat(node[0]).isEqualTo("primary");
+    }
+
+    @Test
+    void unavailableReplicaFallsBackToPrimaryUntilHealthCheckPasses() {
+        String replicaName = "replica-" + UUID.randomUUID();
+        JdbcDataSource missingReplica = new JdbcDataSource();
+        missingReplica.setURL("jdbc:h2:mem:" + replicaName + ";IFEXISTS=TRUE");
+        route(missingReplica);
+
+        assertThat(readOnly.execute(status -> node())).isEqualTo("primary");
+
+        createDatabase("jdbc:h2:mem:" + replicaName + ";DB_CLOSE_DELAY=-1", "replica");
+        routingDataSource.checkReplicas();
+
+        assertThat(readOnly.execute(status -> node())).isEqualTo("replica");
+    }
+
+    private void route(DataSource replica) {
+        routingDataSource = new ReplicaRoutingDataSource(database("primary"), List.of(replica),
+                Duration.ofHours(1), Duration.ofSeconds(1));
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource database(String node) {
+        return createDatabase("jdbc:h2:mem:" + node + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", node);
+    }
+
+    private static DataSource createDatabase(String url, String node) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", node);
+        return dataSource;
+    }
+}
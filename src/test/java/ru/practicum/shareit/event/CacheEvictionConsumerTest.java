@@ -0,0 +1,63 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.config.CacheConfig;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheEvictionConsumerTest {
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.REQUEST_FEED,
+            CacheConfig.COMPLETED_BOOKINGS);
+    private final CacheEvictionConsumer consumer = new CacheEvictionConsumer(cacheManager);
+
+    @Test
+    void canceledBookingEvictsOnlyTheCheckOfItsBookerAndItem() {
+        Cache cache = cacheManager.getCache(CacheConfig.COMPLETED_BOOKINGS);
+        cache.put(List.of(7L, 5L), true);
+        cache.put(List.of(8L, 5L), true);
+
+        consumer.onEvent(event(EventType.BOOKING_STATUS_CHANGED, 5L, 7L, BookingStatus.CANCELED.name()), true);
+
+        assertThat(cache.get(List.of(7L, 5L))).isNull();
+        assertThat(cache.get(List.of(8L, 5L))).isNotNull();
+    }
+
+    @Test
+    void answerItemChangesEvictTheRequestFeedAtTheEndOfTheBatch() {
+        cacheManager.getCache(CacheConfig.REQUEST_FEED).put(List.of(1L, 0, 20), List.of());
+
+        consumer.onEvent(event(EventType.ITEM_UPDATED, 5L, 7L, "3"), false);
+        assertThat(cacheManager.getCache(CacheConfig.REQUEST_FEED).get(List.of(1L, 0, 20))).isNotNull();
+
+        consumer.onEvent(event(EventType.ITEM_DELETED, 6L, 7L, null), true);
+        assertThat(cacheManager.getCache(CacheConfig.REQUEST_FEED).get(List.of(1L, 0, 20))).isNull();
+    }
+
+    @Test
+    void itemsWithoutARequestKeepTheRequestFeed() {
+        cacheManager.getCache(CacheConfig.REQUEST_FEED).put(List.of(1L, 0, 20), List.of());
+
+        consumer.onEvent(event(EventType.ITEM_UPDATED, 5L, 7L, null), true);
+
+        assertThat(cacheManager.getCache(CacheConfig.REQUEST_FEED).get(List.of(1L, 0, 20))).isNotNull();
+    }
+
+    private static DomainEvent event(EventType type, Long itemId, Long userId, String detail) {
+        DomainEvent event = new DomainEvent();
+        event.copyFrom(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(itemId)
+                .itemId(itemId)
+                .userId(userId)
+                .detail(detail)
+                .build());
+        return event;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventRingBufferTest {
+
+    @Test
+    void drainHandsOutEventsInOrderAndMarksTheEndOfEachBatch() throws Exception {
+        EventRingBuffer ringBuffer = new EventRingBuffer(8);
+        for (long id = 1; id <= 5; id++) {
+            ringBuffer.publish(event(id));
+        }
+
+        List<String> seen = new ArrayList<>();
+        EventConsumer consumer = (event, endOfBatch) -> seen.add(event.getAggregateId() + (endOfBatch ? "!" : ""));
+
+        assertThat(ringBuffer.drain(consumer, 3)).isEqualTo(3);
+        assertThat(ringBuffer.drain(consumer, 3)).isEqualTo(2);
+        assertThat(ringBuffer.drain(consumer, 3)).isZero();
+        assertThat(seen).containsExactly("1", "2", "3!", "4", "5!");
+        assertThat(ringBuffer.backlog()).isZero();
+    }
+
+    @Test
+    void publishBlocksWhileTheRingIsFull() throws Exception {
+        EventRingBuffer ringBuffer = new EventRingBuffer(2);
+        ringBuffer.publish(event(1));
+        ringBuffer.publish(event(2));
+
+        CompletableFuture<Long> third = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ringBuffer.publish(event(3));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertThat(third).isNotDone();
+
+        List<Long> seen = new ArrayList<>();
+        ringBuffer.drain((event, endOfBatch) -> seen.add(event.getAggregateId()), 1);
+
+        assertThat(third.get(1, TimeUnit.SECONDS)).isEqualTo(2L);
+        ringBuffer.drain((event, endOfBatch) -> seen.add(event.getAggregateId()), 10);
+        assertThat(seen).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new EventRingBuffer(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OutboxEvent event(long aggregateId) {
+        return OutboxEvent.builder()
+                .id(aggregateId)
+                .type(EventType.BOOKING_CREATED)
+                .aggregateId(aggregateId)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDates;
+import ru.practicum.shareit.item.dto.ItemBookingStats;
+import ru.practicum.shareit.item.dto.ItemBookingSummaryRow;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemBookingSummaryServiceTest {
+
+    private static final long ITEM = 1L;
+    private static final long OWNER = 2L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final ItemBookingSummaryRepository summaryRepository = mock(ItemBookingSummaryRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ItemBookingSummaryService summaryService = new ItemBookingSummaryService(summaryRepository,
+            bookingRepository, mock(PlatformTransactionManager.class), 500);
+
+    @Test
+    void missingRowFallsBackToBookingsAndIsCreatedByTheJob() {
+        ItemBookingDates dates = new ItemBookingDates(ITEM, NOW.minusDays(1), NOW.plusDays(1));
+        when(summaryRepository.findRowByItemId(ITEM))
+                .thenReturn(Optional.of(new ItemBookingSummaryRow(ITEM, null, null, null, null, false)));
+        when(bookingRepository.findBookingDatesByItemId(ITEM, NOW)).thenReturn(Optional.of(dates));
+
+        assertThat(summaryService.findDates(ITEM, NOW)).contains(dates);
+
+        when(summaryRepository.findForUpdate(ITEM)).thenReturn(Optional.of(new ItemBookingSummary()));
+        when(bookingRepository.findStatsByItemId(eq(ITEM), any()))
+                .thenReturn(new ItemBookingStats(NOW.minusDays(1), NOW.plusDays(1), NOW.plusDays(2), 2, 0));
+        summaryService.rollForward();
+        summaryService.rollForward();
+
+        verify(summaryRepository, times(1)).insertIfAbsent(ITEM);
+    }
+
+    @Test
+    void ownerItemsWithoutRowsFallBackToBookings() {
+        ItemBookingDates dates = new ItemBookingDates(ITEM, NOW.minusDays(1), null);
+        when(summaryRepository.findRowsByOwnerId(OWNER)).thenReturn(List.of(
+                new ItemBookingSummaryRow(ITEM, null, null, null, null, false),
+                new ItemBookingSummaryRow(ITEM + 1, ITEM + 1, null, NOW.plusDays(3), NOW.plusDays(3), false)));
+        when(bookingRepository.findBookingDatesByOwnerId(OWNER, NOW)).thenReturn(List.of(dates));
+
+        assertThat(summaryService.findDatesByOwner(OWNER, NOW))
+                .containsEntry(ITEM, dates)
+                .hasEntrySatisfying(ITEM + 1, fresh -> assertThat(fresh.getNextBooking()).isEqualTo(NOW.plusDays(3)));
+    }
+
+    @Test
+    void rowWithUnappliedBookingEventFallsBackToBookings() {
+        ItemBookingDates dates = new ItemBookingDates(ITEM, null, NOW.plusHours(1));
+        when(summaryRepository.findRowByItemId(ITEM)).thenReturn(Optional.of(
+                new ItemBookingSummaryRow(ITEM, ITEM, null, NOW.plusDays(3), NOW.plusDays(3), true)));
+        when(bookingRepository.findBookingDatesByItemId(ITEM, NOW)).thenReturn(Optional.of(dates));
+
+        assertThat(summaryService.findDates(ITEM, NOW)).contains(dates);
+        verify(summaryRepository, never()).insertIfAbsent(anyLong());
+    }
+}
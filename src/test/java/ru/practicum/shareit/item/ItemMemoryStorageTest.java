@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemMemoryStorageTest {
+
+    private final ItemMemoryStorage storage = new ItemMemoryStorage();
+
+    @Test
+    void concurrentAddsGetDistinctIdsAndAreIndexedByOwner() throws Exception {
+        User owner = owner(1L);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Item>> tasks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(() -> storage.addItem(itemDto("Дрель", "Ударная дрель", "true"), owner));
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<Item> future : executor.invokeAll(tasks)) {
+            ids.add(future.get().getId());
+        }
+        executor.shutdown();
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(storage.getUserItems(owner.getId())).hasSize(500);
+        assertThat(storage.getUserItems(2L)).isEmpty();
+    }
+
+    @Test
+    void searchFollowsUpdatesAndDeletes() throws Exception {
+        Item drill = storage.addItem(itemDto("Дрель", "Ударная дрель", "true"), owner(1L));
+        Item saw = storage.addItem(itemDto("Пила", "Ручная пила", "true"), owner(1L));
+
+        assertThat(storage.search("дрель")).extracting(ItemDto::getName).containsExactly("Дрель");
+
+        storage.updateItem(drill.getId(), itemDto(null, null, "false"));
+        storage.updateItem(saw.getId(), itemDto("Пила-дрель", null, null));
+        assertThat(storage.search("дрель")).extracting(ItemDto::getName).containsExactly("Пила-дрель");
+
+        storage.deleteItem(saw.getId());
+        assertThat(storage.search("дрель")).isEmpty();
+        assertThat(storage.getUserItems(1L)).extracting(Item::getId).containsExactly(drill.getId());
+    }
+
+    private static User owner(long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static ItemDto itemDto(String name, String description, String available) {
+        return ItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
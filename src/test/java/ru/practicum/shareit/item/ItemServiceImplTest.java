@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import ru.practicum.shareit.batch.BatchValidator;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.booking.ItemAvailabilityIndex;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.concurrency.FanOutExecutor;
+import ru.practicum.shareit.event.OutboxPublisher;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ItemServiceImplTest {
+
+    private static final long OWNER = 1L;
+    private static final long REQUEST = 7L;
+
+    private final UserService userService = mock(UserService.class);
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+    private final ItemServiceImpl itemService = new ItemServiceImpl(userService, itemRepository,
+            mock(CommentRepository.class), itemRequestRepository, mock(ItemSearchEngine.class),
+            mock(BatchValidator.class), mock(FanOutExecutor.class), mock(ItemAvailabilityIndex.class),
+            mock(OutboxPublisher.class), mock(ItemBookingSummaryService.class));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchItemsAreLinkedToTheirRequests() throws Exception {
+        when(userService.getUserById(OWNER)).thenReturn(new User());
+        ItemRequest request = ItemRequest.builder().id(REQUEST).build();
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of(request));
+        AtomicLong ids = new AtomicLong();
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            items.forEach(item -> item.setId(ids.incrementAndGet()));
+            return items;
+        });
+
+        BatchResultDto result = itemService.addItems(List.of(item(REQUEST), item(REQUEST + 1), item(0)), OWNER);
+
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getIndex()).isEqualTo(1);
+        ArgumentCaptor<List<Item>> saved = ArgumentCaptor.forClass(List.class);
+        verify(itemRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(Item::getRequest).containsExactly(request, null);
+    }
+
+    @Test
+    void renamingTheOwnerOrAnAuthorChangesTheETag() throws Exception {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 12, 0);
+        LocalDateTime renamed = created.plusMinutes(5);
+        when(itemRepository.findVersionById(anyLong(), any())).thenReturn(
+                Optional.of(version(created, created)),
+                Optional.of(version(renamed, created)),
+                Optional.of(version(created, renamed)));
+
+        String original = itemService.getItemVersion(1L).getETag();
+
+        assertThat(itemService.getItemVersion(1L).getETag()).isNotEqualTo(original);
+        assertThat(itemService.getItemVersion(1L).getETag()).isNotEqualTo(original);
+    }
+
+    private static ItemVersionDto version(LocalDateTime ownerUpdatedAt, LocalDateTime authorsUpdatedAt) {
+        LocalDateTime itemUpdatedAt = LocalDateTime.of(2030, 1, 1, 11, 0);
+        return new ItemVersionDto(itemUpdatedAt, ownerUpdatedAt, null, 0L, itemUpdatedAt, 1L, authorsUpdatedAt,
+                null, null);
+    }
+
+    private static ItemDto item(long request) {
+        return ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available("true")
+                .request(request)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemDtoResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void bookingKeysArePresentWithoutBookings() {
+        ItemDtoResponse item = ItemDtoResponse.builder()
+                .id(1)
+                .name("Дрель")
+                .description("Аккумуляторная")
+                .available("true")
+                .build();
+
+        JsonNode json = objectMapper.valueToTree(item);
+
+        assertThat(json.has("lastBooking")).isTrue();
+        assertThat(json.get("lastBooking").isNull()).isTrue();
+        assertThat(json.has("nextBooking")).isTrue();
+        assertThat(json.has("owner")).isFalse();
+        assertThat(json.has("comments")).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryCountFilterTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void itemDetailCountsStatementsOfFanOutTasks() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(id(restTemplate.postForEntity("/users",
+                Map.of("name", "owner", "email", "owner@queries.test"), Map.class))));
+        long itemId = id(restTemplate.postForEntity("/items", new HttpEntity<>(
+                Map.of("name", "Дрель", "description", "Простая дрель", "available", "true"), headers), Map.class));
+
+        ResponseEntity<Map> response = restTemplate.getForEntity("/items/" + itemId, Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        // The version lookup runs on the request thread; the item, its booking dates and its comments in fan-out tasks.
+        DistributionSummary queries = awaitSummary();
+        assertThat(queries.max()).isGreaterThanOrEqualTo(4);
+    }
+
+    private DistributionSummary awaitSummary() throws InterruptedException {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            DistributionSummary summary = meterRegistry.find("shareit.request.queries")
+                    .tag("method", "GET")
+                    .tag("uri", "/items/{id}")
+                    .summary();
+            if (summary != null && summary.count() > 0) {
+                return summary;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No query count recorded for GET /items/{id}");
+    }
+
+    private long id(ResponseEntity<Map> response) {
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        return ((Number) response.getBody().get("id")).longValue();
+    }
+}
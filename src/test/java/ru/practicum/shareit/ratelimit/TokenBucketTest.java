@@ -0,0 +1,72 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstUpToCapacityThenReportsWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 2);
+        assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(SECOND / 4);
+    }
+
+    @Test
+    void refillsAtRateWithoutExceedingCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.tryAcquire(SECOND)).isZero();
+        assertThat(bucket.tryAcquire(SECOND)).isPositive();
+
+        long idle = 100 * SECOND;
+        assertThat(bucket.tryAcquire(idle)).isZero();
+        assertThat(bucket.tryAcquire(idle)).isZero();
+        assertThat(bucket.tryAcquire(idle)).isPositive();
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, 0);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException ignore) {
+                        return;
+                    }
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(granted).hasValue(1000);
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemRequestServiceImplTest {
+
+    private static final long USER = 1L;
+
+    private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final ItemRequestServiceImpl itemRequestService = new ItemRequestServiceImpl(itemRequestRepository,
+            mock(ItemRepository.class), userService);
+
+    @Test
+    void feedPageStartsAtTheRequestedOffset() throws Exception {
+        when(userService.existsById(USER)).thenReturn(true);
+
+        itemRequestService.getAll(USER, 5, 10);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(itemRequestRepository).findByClient_IdNotOrderByCreatedDescIdDesc(eq(USER), pageable.capture());
+        assertThat(pageable.getValue().getOffset()).isEqualTo(5);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(10);
+    }
+}
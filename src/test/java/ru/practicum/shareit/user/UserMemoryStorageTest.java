@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.NotNewEmail;
+import ru.practicum.shareit.exceptions.ValidationException;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserMemoryStorageTest {
+
+    private final UserMemoryStorage storage = new UserMemoryStorage();
+
+    @Test
+    void concurrentAddsWithSameEmailCreateOneUser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(() -> {
+                try {
+                    storage.addUser(user("name", "same@mail.ru"));
+                    return true;
+                } catch (NotNewEmail e) {
+                    return false;
+                }
+            });
+        }
+
+        long created = 0;
+        for (Future<Boolean> future : executor.invokeAll(tasks)) {
+            if (future.get()) {
+                created++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(storage.getAll()).hasSize(1);
+    }
+
+    @Test
+    void emailIsReleasedOnUpdateAndDelete() throws Exception {
+        User first = storage.addUser(user("first", "first@mail.ru"));
+        User second = storage.addUser(user("second", "second@mail.ru"));
+
+        assertThatThrownBy(() -> storage.updateUser(user(null, "second@mail.ru"), first.getId()))
+                .isInstanceOf(NotNewEmail.class);
+
+        storage.updateUser(user(null, "renamed@mail.ru"), first.getId());
+        storage.deleteUser(second.getId());
+
+        assertThat(storage.addUser(user("third", "first@mail.ru")).getId()).isNotNull();
+        assertThat(storage.addUser(user("fourth", "second@mail.ru")).getId()).isNotNull();
+        assertThat(storage.getUserById(first.getId()).getName()).isEqualTo("first");
+    }
+
+    @Test
+    void userWithoutEmailIsRejected() {
+        assertThatThrownBy(() -> storage.addUser(user("name", null)))
+                .isInstanceOf(ValidationException.class);
+        assertThat(storage.getAll()).isEmpty();
+    }
+
+    private static User user(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}